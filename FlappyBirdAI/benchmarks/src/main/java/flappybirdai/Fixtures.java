@@ -0,0 +1,109 @@
+package flappybirdai;
+
+import static flappybirdai.Pool.INPUTS;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/*
+Seeded inputs for the benchmarks. Every fixture is built from a fixed seed with
+the same mutation code the trainer uses, so two runs (and two commits) measure
+exactly the same genomes, pools and courses. A genome of a given size is grown
+by repeated mutate() rounds on a fresh genome, like initializePool() does once,
+until it has at least that many genes.
+
+Kıyaslamaların tohumlu girdileri. Her girdi sabit bir tohumdan, eğiticinin
+kullandığı mutasyon koduyla oluşturulur; böylece iki çalıştırma (ve iki
+commit) tamamen aynı genomları, havuzları ve parkurları ölçer. Bir boyuttaki
+genom, yeni bir genoma en az o kadar geni olana kadar art arda mutate()
+uygulanarak büyütülür.
+*/
+final class Fixtures {
+
+    static final long SEED = 42L;
+
+    private Fixtures() {
+    }
+
+    //Tohumlu sayı üreteciyle verilen popülasyonda bir havuz
+    static Pool pool(final int population) {
+        final Config config = new Config();
+        config.population = population;
+        return new Pool(config, new Streams(SEED));
+    }
+
+    //Boyut adının en az gen sayısı
+    static int genes(final String size) {
+        switch (size) {
+            case "small":
+                return 8;
+            case "medium":
+                return 32;
+            case "large":
+                return 128;
+            default:
+                throw new IllegalArgumentException("Unknown genome size " + size);
+        }
+    }
+
+    //Verilen boyutta bir genom; sonuç sadece havuzun tohumuna bağlıdır
+    static Genome genome(final Pool pool, final String size) {
+        return genome(pool, genes(size));
+    }
+
+    //En az 'genes' genli bir genom; sonuç sadece havuzun tohumuna bağlıdır
+    static Genome genome(final Pool pool, final int genes) {
+        final Genome genome = new Genome(pool);
+        genome.maxNeuron = INPUTS;
+        final SplittableRandom rnd = pool.streams.genome(0, 0);
+        while (genome.genes.size() < genes)
+            genome.mutate(rnd);
+        return genome;
+    }
+
+    //Genomun birkaç tur mutasyonla ayrılmış bir akrabası; ortak innovation numaraları vardır
+    static Genome relative(final Genome genome) {
+        final Genome relative = genome.clone();
+        final SplittableRandom rnd = genome.pool.streams.genome(0, 1);
+        relative.mutate(rnd);
+        relative.mutate(rnd);
+        return relative;
+    }
+
+    //Ağın girdileri: kuş yüksekliği, boru yüksekliği, boru konumu ve sabit
+    static double[] input() {
+        final Random rnd = new Random(SEED);
+        final double[] input = new double[INPUTS];
+        for (int i = 0; i < INPUTS - 1; ++i)
+            input[i] = rnd.nextDouble();
+        input[INPUTS - 1] = 1.0;
+        return input;
+    }
+
+    //Başlatılmış ve tohumlu uygunluklarla puanlanmış, newGeneration() için hazır bir havuz
+    static Pool scoredPool(final int population) {
+        final Pool pool = pool(population);
+        pool.initializePool();
+        final Random rnd = new Random(SEED + 1);
+        for (final Species species : pool.species)
+            for (final Genome genome : species.genomes) {
+                genome.fitness = rnd.nextInt(1000) - 1.0;
+                pool.maxFitness = Math.max(pool.maxFitness, genome.fitness);
+            }
+        return pool;
+    }
+
+    //Verilen sayıda jenerasyon adım sınırıyla oynanarak evrilmiş bir havuz; yüzlerce türü ve az üyeli grupları vardır
+    static Pool evolvedPool(final int population, final int generations) {
+        final Pool pool = pool(population);
+        pool.config.generationTicks = 1500;
+        pool.config.batch = false;
+        pool.config.compile = false;
+        pool.initializePool();
+        final Game game = new Game(pool);
+        game.initializeGame();
+        while (pool.generation <= generations)
+            game.tick();
+        return pool;
+    }
+}
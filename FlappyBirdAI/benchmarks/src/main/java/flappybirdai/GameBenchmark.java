@@ -0,0 +1,58 @@
+package flappybirdai;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+One headless tick of a seeded population: eval(), update() and learn(), which
+is Game.tick() without the generation change. When every bird has died the same
+birds are reset onto the continuing course, so the population and the networks
+stay fixed and only the simulation is measured. The time is an average over
+whole episodes, so it includes the ticks in which most birds are already dead.
+
+Tohumlu bir popülasyonun pencere olmadan bir adımı: eval(), update() ve learn();
+yani jenerasyon değişimi olmadan Game.tick(). Bütün kuşlar öldüğünde aynı kuşlar
+devam eden parkurda yeniden başlatılır; böylece popülasyon ve ağlar sabit kalır
+ve sadece simülasyon ölçülür. Süre bütün parkurların ortalamasıdır; kuşların
+çoğunun öldüğü adımlar da buna dahildir.
+*/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "--add-modules", "jdk.incubator.vector" })
+public class GameBenchmark {
+
+    @Param({ "50", "1000", "10000" })
+    public int population;
+
+    private Game game;
+
+    @Setup
+    public void setup() {
+        final Pool pool = Fixtures.pool(population);
+        pool.initializePool();
+        game = new Game(pool);
+        game.initializeGame();
+    }
+
+    @Benchmark
+    public int tick() {
+        game.eval();
+        game.update();
+        if (game.learn())
+            game.reset();
+        return game.livingCount;
+    }
+}
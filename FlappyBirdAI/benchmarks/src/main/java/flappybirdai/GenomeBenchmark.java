@@ -0,0 +1,89 @@
+package flappybirdai;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+The genome operations of a generation: the speciation distance (sameSpecies,
+disjoint, weights), crossover and mutation, measured on a seeded genome and a
+related genome that shares most of its innovation numbers, at 10, 100 and 1000
+genes. mutate() changes the genome, so it runs on a fresh clone; cloneGenome is
+the baseline to subtract.
+
+Bir jenerasyondaki genom işlemleri: tür uzaklığı (sameSpecies, disjoint,
+weights), crossover ve mutasyon; tohumlu bir genom ve innovation numaralarının
+çoğunu paylaşan bir akrabası üzerinde 10, 100 ve 1000 genle ölçülür. mutate()
+genomu değiştirdiği için yeni bir kopya üzerinde çalışır; cloneGenome çıkarılacak
+taban maliyettir.
+*/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "--add-modules", "jdk.incubator.vector" })
+public class GenomeBenchmark {
+
+    //Genomun en az gen sayısı; doğrusal birleştirmenin ölçeklenmesi için 10, 100 ve 1000
+    @Param({ "10", "100", "1000" })
+    public int genes;
+
+    private Genome genome;
+    private Genome relative;
+    private Species species;
+    private SplittableRandom rnd;           //Çaprazlama ve mutasyonun akışı
+
+    @Setup
+    public void setup() {
+        final Pool pool = Fixtures.pool(1);
+        genome = Fixtures.genome(pool, genes);
+        relative = Fixtures.relative(genome);
+        genome.fitness = 2.0;
+        relative.fitness = 1.0;
+        species = new Species(pool);
+        rnd = pool.streams.genome(1, 0);
+    }
+
+    @Benchmark
+    public boolean sameSpecies() {
+        return genome.sameSpecies(relative);
+    }
+
+    @Benchmark
+    public double disjoint() {
+        return genome.disjoint(relative);
+    }
+
+    @Benchmark
+    public double weights() {
+        return genome.weights(relative);
+    }
+
+    @Benchmark
+    public Genome crossover() {
+        return species.crossover(genome, relative, rnd);
+    }
+
+    @Benchmark
+    public Genome cloneGenome() {
+        return genome.clone();
+    }
+
+    @Benchmark
+    public Genome mutate() {
+        final Genome child = genome.clone();
+        child.mutate(rnd);
+        return child;
+    }
+}
@@ -0,0 +1,75 @@
+package flappybirdai;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+The networks of an evolved population under each inference mode. A fresh
+population is one species of near-identical genomes, which flatters batching;
+after eight generations of play there are hundreds of species and almost every
+bird has a topology of its own. eval() is one tick with every bird alive, again
+and again. generation() plays whole generations as the trainer does, with the
+1500-tick budget of the fixture: compiled networks are new classes that start
+in the bytecode interpreter, so only this measures what compiling costs.
+
+Evrilmiş bir popülasyonun ağları her çıkarım modunda. Yeni bir popülasyon
+neredeyse aynı genomlardan oluşan tek bir türdür ve toplu değerlendirmeyi
+olduğundan iyi gösterir; sekiz jenerasyon oynandıktan sonra yüzlerce tür vardır
+ve neredeyse her kuşun kendine ait bir topolojisi vardır. eval() bütün kuşlar
+yaşarken tek bir adımı tekrar tekrar ölçer. generation() girdinin 1500 adımlık
+sınırıyla eğiticinin yaptığı gibi bütün jenerasyonlar oynar: derlenmiş ağlar
+bayt kodu yorumlayıcısında başlayan yeni sınıflardır, derlemenin maliyetini
+sadece bu ölçer.
+*/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "--add-modules", "jdk.incubator.vector" })
+public class InferenceBenchmark {
+
+    @Param({ "1000", "5000" })
+    public int population;
+
+    @Param({ "scalar", "batch", "compiled" })
+    public String inference;
+
+    private Game game;
+
+    @Setup
+    public void setup() {
+        final Pool pool = Fixtures.evolvedPool(population, 8);
+        pool.config.batch = inference.equals("batch");
+        pool.config.compile = inference.equals("compiled");
+        game = new Game(pool);
+        game.initializeGame();
+    }
+
+    @Benchmark
+    public boolean[] eval() {
+        game.eval();
+        return game.flap;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 8)
+    public int generation() {
+        while (!game.tick()) {
+        }
+        return game.alive();
+    }
+}
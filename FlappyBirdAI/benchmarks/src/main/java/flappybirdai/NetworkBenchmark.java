@@ -0,0 +1,75 @@
+package flappybirdai;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+Builds and evaluates the network of one seeded genome. evaluateNetwork is the
+per-bird cost of every tick, generateNetwork the per-genome cost of every
+generation; both run interpreted and compiled to bytecode (Config.compile), under
+every activation. The genome is old enough for NetworkCompiler.MIN_AGE, and the
+one hot network is the compiler's best case: the JIT compiles its class like
+any other method.
+
+Tohumlu bir genomun ağını oluşturur ve değerlendirir. evaluateNetwork her
+adımda kuş başına, generateNetwork her jenerasyonda genom başına ödenen
+maliyettir; ikisi de her aktivasyonla, yorumlanarak ve bayt koduna derlenerek
+(Config.compile) çalışır. Genom NetworkCompiler.MIN_AGE için yeterince yaşlıdır;
+tek ve sık çalışan bir ağ derleyicinin en iyi durumudur: JIT sınıfını diğer
+metotlar gibi derler.
+*/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "--add-modules", "jdk.incubator.vector" })
+public class NetworkBenchmark {
+
+    @Param({ "small", "medium", "large" })
+    public String size;
+
+    @Param({ "false", "true" })
+    public boolean compile;
+
+    @Param({ "EXACT", "TABLE", "RATIONAL" })
+    public Activation activation;
+
+    private Genome genome;
+    private double[] input;
+    private double[] output;
+
+    @Setup
+    public void setup() {
+        final Pool pool = Fixtures.pool(1);
+        pool.config.compile = compile;
+        pool.config.activation = activation;
+        genome = Fixtures.genome(pool, size);
+        genome.age = NetworkCompiler.MIN_AGE;
+        genome.generateNetwork();
+        input = Fixtures.input();
+        output = new double[Pool.OUTPUTS];
+    }
+
+    @Benchmark
+    public double[] evaluateNetwork() {
+        genome.evaluateNetwork(input, output);
+        return output;
+    }
+
+    @Benchmark
+    public Network generateNetwork() {
+        genome.generateNetwork();
+        return genome.network;
+    }
+}
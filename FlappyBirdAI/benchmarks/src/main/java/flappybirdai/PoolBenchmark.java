@@ -0,0 +1,50 @@
+package flappybirdai;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+One full newGeneration(): culling, ranking, breeding and speciation of a seeded,
+scored pool. The call consumes the pool, so every invocation gets a freshly
+built one; a generation takes long enough for that to be accurate.
+
+Tam bir newGeneration(): tohumlu ve puanlanmış bir havuzun ayıklanması,
+sıralanması, çoğaltılması ve türlere ayrılması. Çağrı havuzu değiştirdiği için
+her çağrıya yeni bir havuz hazırlanır; bir jenerasyon bunun doğru ölçülmesine
+yetecek kadar uzun sürer.
+*/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "--add-modules", "jdk.incubator.vector" })
+public class PoolBenchmark {
+
+    @Param({ "50", "1000" })
+    public int population;
+
+    private Pool pool;
+
+    @Setup(Level.Invocation)
+    public void setup() {
+        pool = Fixtures.scoredPool(population);
+    }
+
+    @Benchmark
+    public Pool newGeneration() {
+        pool.newGeneration();
+        return pool;
+    }
+}
@@ -0,0 +1,52 @@
+package flappybirdai;
+
+/*
+The activation function used by the networks of one run. EXACT is the original
+2 / (1 + e^(-4.9x)) - 1; the others avoid Math.exp. maxError is the largest
+absolute difference to EXACT over all inputs. Through a network the difference
+compounds with the weights and, over recurrent links, across ticks; a flap
+decision can only differ where the exact output is that close to the threshold
+(see ActivationTest).
+
+Bir çalışmadaki ağların kullandığı aktivasyon fonksiyonu. EXACT asıl fonksiyondur,
+diğerleri Math.exp çağırmaz. maxError, bütün girdilerde EXACT'e olan en büyük
+mutlak farktır. Ağ boyunca fark ağırlıklarla ve döngüsel bağlantılarda adımlar
+arasında büyür; zıplama kararı sadece kesin çıktı eşiğe bu kadar yakınsa
+değişebilir (bkz. ActivationTest).
+*/
+public enum Activation {
+
+    //Math.exp ile kesin değer
+    EXACT(0.0, "sigmoid") {
+        @Override
+        public double apply(final double x) {
+            return Neuron.sigmoid(x);
+        }
+    },
+
+    //[-4, 4] aralığında 1/512 adımlı tablodan doğrusal aradeğerleme; h²/8 * max|f''| = 2.2e-6
+    TABLE(2.3e-6, "sigmoidTable") {
+        @Override
+        public double apply(final double x) {
+            return Neuron.sigmoidTable(x);
+        }
+    },
+
+    //tanh'ın 7/6 Padé yaklaşımı, ±1'e kırpılmış; en büyük hata x = ±2.03 civarında
+    RATIONAL(9.7e-5, "sigmoidRational") {
+        @Override
+        public double apply(final double x) {
+            return Neuron.sigmoidRational(x);
+        }
+    };
+
+    public final double maxError;       //EXACT'e olan en büyük mutlak fark
+    final String method;                //Neuron'daki karşılığı; NetworkCompiler çağırır
+
+    private Activation(final double maxError, final String method) {
+        this.maxError = maxError;
+        this.method = method;
+    }
+
+    public abstract double apply(double x);
+}
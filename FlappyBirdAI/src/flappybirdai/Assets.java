@@ -0,0 +1,203 @@
+package flappybirdai;
+
+import static flappybirdai.Game.BIRD_HEIGHT;
+import static flappybirdai.Game.BIRD_WIDTH;
+import static flappybirdai.Game.FLOOR_OFFSET;
+import static flappybirdai.Game.HEIGHT;
+import static flappybirdai.Game.TUBE_HEIGHT;
+import static flappybirdai.Game.TUBE_WIDTH;
+import static flappybirdai.Game.WIDTH;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.IOException;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.imageio.ImageIO;
+
+/*
+The images of the window, loaded from the classpath (flappybirdai/images in the
+jar) the first time something is drawn. This class is only initialized by the
+renderer, so the headless trainer and the simulation never read or scale an
+image. Every image is scaled once, straight from the file to its drawn size,
+into an image compatible with the screen; a missing file fails loudly.
+
+Pencerenin görüntüleri. Sınıf yolundan (jar içindeki flappybirdai/images) ilk
+çizimde yüklenir. Bu sınıfı sadece çizim başlatır; başsız eğitici ve simülasyon
+hiç görüntü okumaz ya da ölçeklemez. Her görüntü dosyadan çizildiği boyuta bir
+kez, ekrana uygun bir görüntüye ölçeklenir; eksik bir dosya hata verir.
+*/
+final class Assets {
+
+    //Ekrana uygun, ölçeklenmiş ve önceden çizilmiş katmanlar
+    static final Image BACKGROUND;
+    static final Image HINT;                //Zeminin üstüne çizilen sabit yazı
+    static final Image GROUND;
+    static final Image TUBE1;
+    static final Image TUBE2;
+
+    //Kuş karelerinin pikselleri ve renklendirilen gövde pikselleri
+    private static final int[][] BIRD_PIXELS = new int[3][];       //[kare][piksel] ARGB
+    private static final int[][] TINT_POSITIONS = new int[3][];    //[kare][k] gövde pikselinin konumu
+    private static final int[][] TINT_INDICES = new int[3][];      //[kare][k] gövde pikselinin palet indeksi
+    private static final int[] PALETTE;                             //Gövdenin farklı renkleri
+    private static final float[] PALETTE_S;                         //Palet renklerinin doygunluğu
+    private static final float[] PALETTE_B;                         //Palet renklerinin parlaklığı
+
+    static {
+        BACKGROUND = load("bg.png", WIDTH, HEIGHT, Transparency.OPAQUE);
+        GROUND = load("brick.png", FlappyBirdAI.FLOOR_WIDTH,
+                FlappyBirdAI.FLOOR_HEIGHT, Transparency.TRANSLUCENT);
+        TUBE1 = load("tube1.png", TUBE_WIDTH, TUBE_HEIGHT,
+                Transparency.TRANSLUCENT);
+        TUBE2 = load("tube2.png", TUBE_WIDTH, TUBE_HEIGHT,
+                Transparency.TRANSLUCENT);
+
+        //Değişmeyen yazı, zeminin üstünde kendi saydam katmanında
+        final BufferedImage hint = compatible(WIDTH, FLOOR_OFFSET,
+                Transparency.TRANSLUCENT);
+        final Graphics2D g = hint.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+                RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.setColor(Color.BLACK);
+        g.setFont(FlappyBirdAI.TEXT_FONT);
+        g.drawString("Hızı Ayarlamak İçin Tıklayın", 160,
+                700 - (HEIGHT - FLOOR_OFFSET));
+        g.dispose();
+        HINT = hint;
+
+        //Kuşa kanat çırpma animasyonu verilmesi; üç kare yan yana, her biri 36x26
+        final BufferedImage bird = read("bird.png");
+        final Map<Integer, Integer> palette = new LinkedHashMap<Integer, Integer>();
+        for (int f = 0; f < 3; ++f) {
+            final BufferedImage frame = new BufferedImage(BIRD_WIDTH,
+                    BIRD_HEIGHT, BufferedImage.TYPE_INT_ARGB);
+            final Graphics2D fg = frame.createGraphics();
+            fg.drawImage(bird, 0, 0, BIRD_WIDTH, BIRD_HEIGHT, f * 36, 0,
+                    f * 36 + 36, 26, null);
+            fg.dispose();
+            preparePalette(f, frame.getRGB(0, 0, BIRD_WIDTH, BIRD_HEIGHT,
+                    null, 0, BIRD_WIDTH), palette);
+        }
+
+        PALETTE = new int[palette.size()];
+        PALETTE_S = new float[PALETTE.length];
+        PALETTE_B = new float[PALETTE.length];
+        for (final Map.Entry<Integer, Integer> entry : palette.entrySet()) {
+            final int argb = entry.getKey();
+            final float[] hsb = Color.RGBtoHSB(argb >> 16 & 0xff,
+                    argb >> 8 & 0xff, argb & 0xff, null);
+            PALETTE[entry.getValue()] = argb;
+            PALETTE_S[entry.getValue()] = hsb[1];
+            PALETTE_B[entry.getValue()] = hsb[2];
+        }
+    }
+
+    private Assets() {
+    }
+
+    //Sınıf yolundan bir görüntü okur
+    private static BufferedImage read(final String name) {
+        final URL url = Assets.class.getResource("images/" + name);
+        if (url == null)
+            throw new IllegalStateException("Missing image flappybirdai/images/"
+                    + name);
+        try {
+            return ImageIO.read(url);
+        } catch (final IOException e) {
+            throw new IllegalStateException("Cannot read image " + url, e);
+        }
+    }
+
+    //Görüntüyü okur ve çizileceği boyuta bir kez ölçekler (en yakın komşu, eski SCALE_FAST gibi)
+    private static Image load(final String name, final int width,
+            final int height, final int transparency) {
+        final BufferedImage image = read(name);
+        final BufferedImage scaled = compatible(width, height, transparency);
+        final Graphics2D g = scaled.createGraphics();
+        g.drawImage(image, 0, 0, width, height, null);
+        g.dispose();
+        return scaled;
+    }
+
+    //Ekranın biçiminde bir görüntü; ekran yoksa sıradan bir BufferedImage
+    static BufferedImage compatible(final int width, final int height,
+            final int transparency) {
+        if (GraphicsEnvironment.isHeadless())
+            return new BufferedImage(width, height,
+                    transparency == Transparency.OPAQUE
+                            ? BufferedImage.TYPE_INT_RGB
+                            : BufferedImage.TYPE_INT_ARGB);
+        return GraphicsEnvironment.getLocalGraphicsEnvironment()
+                .getDefaultScreenDevice().getDefaultConfiguration()
+                .createCompatibleImage(width, height, transparency);
+    }
+
+    //Kuşun mavi gövdesini ayırır: turkuaz-mavi ton aralığında ve yeterince doygun
+    private static boolean tintable(final int argb) {
+        if (argb >>> 24 == 0)
+            return false;
+        final float[] hsb = Color.RGBtoHSB(argb >> 16 & 0xff, argb >> 8 & 0xff,
+                argb & 0xff, null);
+        return hsb[0] >= 0.45f && hsb[0] <= 0.62f && hsb[1] >= 0.25f;
+    }
+
+    //Bir karenin gövde piksellerinin konumlarını ve palet indekslerini bir kez hazırlar
+    private static void preparePalette(final int f, final int[] pixels,
+            final Map<Integer, Integer> palette) {
+        int count = 0;
+        final int[] positions = new int[pixels.length];
+        final int[] indices = new int[pixels.length];
+        for (int p = 0; p < pixels.length; ++p)
+            if (tintable(pixels[p])) {
+                Integer index = palette.get(pixels[p]);
+                if (index == null) {
+                    index = palette.size();
+                    palette.put(pixels[p], index);
+                }
+                positions[count] = p;
+                indices[count++] = index;
+            }
+        BIRD_PIXELS[f] = pixels;
+        TINT_POSITIONS[f] = Arrays.copyOf(positions, count);
+        TINT_INDICES[f] = Arrays.copyOf(indices, count);
+    }
+
+    /*
+    Türün karelerini renklendirir. Ton tür numarasından altın oranla türetilir,
+    böylece aynı tür hep aynı renkte, ardışık türler birbirinden uzak renklerde
+    olur. Palet bir kez çevrilir, sonra kare dizisi kopyalanıp sadece gövde
+    pikselleri DataBufferInt üzerine yazılır.
+    */
+    static BufferedImage[] tint(final int id) {
+        final float hue = (float) (id * 0.6180339887498949 % 1.0);
+        final int[] palette = new int[PALETTE.length];
+        for (int i = 0; i < palette.length; ++i)
+            palette[i] = PALETTE[i] & 0xff000000
+                    | Color.HSBtoRGB(hue, PALETTE_S[i], PALETTE_B[i]) & 0xffffff;
+
+        final BufferedImage[] frames = new BufferedImage[3];
+        for (int f = 0; f < 3; ++f) {
+            //Sadece döndürülmüş karelerin kaynağıdır, hızlandırılmış olması gerekmez
+            final BufferedImage image = new BufferedImage(BIRD_WIDTH,
+                    BIRD_HEIGHT, BufferedImage.TYPE_INT_ARGB);
+            final int[] data = ((DataBufferInt) image.getRaster()
+                    .getDataBuffer()).getData();
+            System.arraycopy(BIRD_PIXELS[f], 0, data, 0, data.length);
+            final int[] positions = TINT_POSITIONS[f];
+            final int[] indices = TINT_INDICES[f];
+            for (int k = 0; k < positions.length; ++k)
+                data[positions[k]] = palette[indices[k]];
+            frames[f] = image;
+        }
+        return frames;
+    }
+}
@@ -0,0 +1,407 @@
+package flappybirdai;
+
+import static flappybirdai.Pool.INPUTS;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/*
+Evaluates the birds of one game in batches. Birds whose compiled networks have
+the same topology (same neuron order and links, different weights) form a group;
+the weights and neuron values of a group are stored structure-of-arrays, one
+column per bird, so every link is one multiply-add over all birds of the group.
+Groups narrower than MINIMUM birds are not worth the copy: their birds are
+evaluated one by one with Network.evaluate, as without batching. After a few
+generations almost every bird has a topology of its own, so this is the common
+case; a group whose living birds drop below MINIMUM is dissolved the same way.
+
+The vector kernel uses jdk.incubator.vector when the module is available
+(--add-modules jdk.incubator.vector); otherwise, or with
+-Dflappybirdai.vector=false, a scalar kernel is used. Both kernels sum in the
+same order as Network.evaluate; with Activation.EXACT and RATIONAL they give
+exactly the same results, and Activation.TABLE is always evaluated by the scalar
+kernel.
+
+Bir oyunun kuşlarını toplu olarak değerlendirir. Derlenmiş ağları aynı topolojiye
+sahip kuşlar (aynı nöron sırası ve bağlantılar, farklı ağırlıklar) bir grup
+oluşturur; grubun ağırlıkları ve nöron değerleri her kuş için bir sütun olacak
+şekilde dizi yapısında (SoA) tutulur, böylece her bağlantı gruptaki bütün kuşlar
+için tek bir çarp-topla olur. MINIMUM kuştan dar gruplar kopyalamaya değmez:
+kuşları toplu değerlendirme olmadan olduğu gibi Network.evaluate ile tek tek
+değerlendirilir. Birkaç jenerasyon sonra neredeyse her kuşun kendine ait bir
+topolojisi vardır, yani bu sık görülen durumdur; yaşayan kuşları MINIMUM'un
+altına düşen bir grup da aynı şekilde dağıtılır.
+
+Vektör çekirdeği jdk.incubator.vector modülü varsa kullanılır; yoksa skaler
+çekirdek kullanılır. İki çekirdek de Network.evaluate ile aynı sırada toplar ve
+birebir aynı sonucu verir.
+*/
+public class BatchEvaluator {
+
+    private static final int GRAIN = 256;       //Bir görevin değerlendirdiği en fazla kuş
+    static final int MINIMUM = 4;               //Bu genişlikten itibaren iki çekirdek de Network.evaluate'ten hızlıdır
+
+    //Bir grubun [from, to) aralığındaki kuşlarının nöron değerlerini hesaplar
+    interface Kernel {
+        void evaluate(Group group, int from, int to);
+    }
+
+    static final Kernel KERNEL = loadKernel();
+
+    //Aynı topolojiye sahip kuşlar
+    static class Group {
+        final Game game;                //Kuşların oyunu
+        final int neurons;
+        final Activation activation;
+        final int[] order;              //Network.order ile aynı
+        final int[] start;              //Network.start ile aynı
+        final int[] sources;            //Network.sources ile aynı
+        int[] birds;                    //Sütunlardaki kuşların oyundaki indeksleri
+        int lanes;                      //Sütun sayısı
+        double[] weights;               //weights[l * lanes + j]: j. kuşun l. bağlantısı
+        double[] state;                 //state[n * lanes + j]: j. kuşun n. nöronu
+
+        Group(final Game game, final Network network,
+                final List<Integer> birds) {
+            this.game = game;
+            neurons = network.neurons;
+            activation = network.activation;
+            order = network.order;
+            start = network.start;
+            sources = network.sources;
+            final int[] indices = new int[birds.size()];
+            for (int j = 0; j < indices.length; ++j)
+                indices[j] = birds.get(j);
+            fill(indices, null, 0);
+        }
+
+        //Sütunları verilen kuşlarla doldurur; 'columns' verilirse nöron değerleri eski sütunlardan kopyalanır
+        private void fill(final int[] birds, final int[] columns,
+                final int oldLanes) {
+            final double[] oldState = state;
+            this.birds = birds;
+            lanes = birds.length;
+            weights = new double[sources.length * lanes];
+            state = new double[neurons * lanes];
+            for (int j = 0; j < lanes; ++j) {
+                final double[] w = game.genomes[birds[j]].network.weights;
+                for (int l = 0; l < w.length; ++l)
+                    weights[l * lanes + j] = w[l];
+                if (oldState != null)
+                    for (int n = 0; n < neurons; ++n)
+                        state[n * lanes + j] = oldState[n * oldLanes + columns[j]];
+            }
+        }
+
+        //Ölü kuşların sütunlarını atar
+        private void compact(final int living) {
+            final int[] kept = new int[living];
+            final int[] columns = new int[living];
+            int k = 0;
+            for (int j = 0; j < lanes; ++j)
+                if (!game.dead[birds[j]]) {
+                    kept[k] = birds[j];
+                    columns[k++] = j;
+                }
+            fill(kept, columns, lanes);
+        }
+
+        //Yaşayan kuşların nöron değerlerini oyuna geri yazar ve kuşları 'singles' dizisine ekler
+        private int release(final int[] singles, int count) {
+            for (int j = 0; j < lanes; ++j)
+                if (!game.dead[birds[j]]) {
+                    final double[] own = game.states[birds[j]];
+                    for (int n = 0; n < neurons; ++n)
+                        own[n] = state[n * lanes + j];
+                    singles[count++] = birds[j];
+                }
+            return count;
+        }
+    }
+
+    //Aynı topolojiyi ve aktivasyonu tanıyan anahtar
+    private static class Topology {
+        private final Network network;
+        private final int hash;
+
+        private Topology(final Network network) {
+            this.network = network;
+            hash = 31 * (31 * (31 * (31 * network.activation.ordinal()
+                    + network.neurons)
+                    + Arrays.hashCode(network.order))
+                    + Arrays.hashCode(network.start))
+                    + Arrays.hashCode(network.sources);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof Topology))
+                return false;
+            final Network other = ((Topology) obj).network;
+            return hash == obj.hashCode() && network.neurons == other.neurons
+                    && network.activation == other.activation
+                    && Arrays.equals(network.order, other.order)
+                    && Arrays.equals(network.start, other.start)
+                    && Arrays.equals(network.sources, other.sources);
+        }
+    }
+
+    private final ForkJoinPool executor;
+    private final int threshold;            //Bu sayının altındaki kuşlar tek iş parçacığında değerlendirilir
+    private final List<Group> groups = new ArrayList<Group>();
+    private Game game;
+    private int[] singles = new int[0];     //Grubu MINIMUM'dan dar olan, tek tek değerlendirilen kuşlar
+    private int singleCount;
+
+    //Her iş parçacığının kendi giriş ve çıkış dizileri
+    private static final ThreadLocal<double[][]> SCRATCH = new ThreadLocal<double[][]>() {
+
+        @Override
+        protected double[][] initialValue() {
+            return new double[][] { new double[INPUTS],
+                    new double[Pool.OUTPUTS] };
+        }
+    };
+
+    public BatchEvaluator(final ForkJoinPool executor, final int threshold) {
+        this.executor = executor;
+        this.threshold = threshold;
+    }
+
+    //Oyunun kuşlarını topolojilerine göre gruplar. Ağlar derlenmiş olmalıdır
+    void prepare(final Game game) {
+        final Map<Topology, List<Integer>> byTopology =
+                new LinkedHashMap<Topology, List<Integer>>();
+        for (int i = 0; i < game.count; ++i) {
+            final Topology key = new Topology(game.genomes[i].network);
+            List<Integer> members = byTopology.get(key);
+            if (members == null) {
+                members = new ArrayList<Integer>();
+                byTopology.put(key, members);
+            }
+            members.add(i);
+        }
+
+        this.game = game;
+        if (singles.length < game.count)
+            singles = new int[game.count];
+        singleCount = 0;
+        groups.clear();
+        for (final Map.Entry<Topology, List<Integer>> entry : byTopology.entrySet())
+            if (entry.getValue().size() < MINIMUM)
+                for (final int bird : entry.getValue())
+                    singles[singleCount++] = bird;
+            else
+                groups.add(new Group(game, entry.getKey().network,
+                        entry.getValue()));
+    }
+
+    //Yaşayan kuşların ağlarını değerlendirir ve zıplayacak olanları işaretler
+    void evaluate(final double tubeHeight, final double tubePosition) {
+        //Ölen tek kuşlar atılır
+        int kept = 0;
+        for (int i = 0; i < singleCount; ++i)
+            if (!game.dead[singles[i]])
+                singles[kept++] = singles[i];
+        singleCount = kept;
+
+        //Kuşların yarısından fazlası ölen grupların sütunları küçültülür, MINIMUM'un altına düşen gruplar dağıtılır
+        int total = 0;
+        for (int g = groups.size() - 1; g >= 0; --g) {
+            final Group group = groups.get(g);
+            int living = 0;
+            for (int j = 0; j < group.lanes; ++j)
+                if (!game.dead[group.birds[j]])
+                    ++living;
+            if (living < MINIMUM) {
+                singleCount = group.release(singles, singleCount);
+                groups.remove(g);
+            } else {
+                if (living * 2 < group.lanes)
+                    group.compact(living);
+                total += group.lanes;
+            }
+        }
+        total += singleCount;
+
+        if (total < threshold || executor.getParallelism() < 2) {
+            for (final Group group : groups)
+                evaluate(group, 0, group.lanes, tubeHeight, tubePosition);
+            evaluate(game, singles, 0, singleCount, tubeHeight, tubePosition);
+            return;
+        }
+
+        //Büyük gruplar parçalara bölünür, böylece tek bir büyük grup da paralel çalışır
+        final List<RecursiveAction> tasks = new ArrayList<RecursiveAction>();
+        for (final Group group : groups)
+            for (int from = 0; from < group.lanes; from += GRAIN)
+                tasks.add(new Task(group, from,
+                        Math.min(from + GRAIN, group.lanes), tubeHeight,
+                        tubePosition));
+        for (int from = 0; from < singleCount; from += GRAIN)
+            tasks.add(new SingleTask(game, singles, from,
+                    Math.min(from + GRAIN, singleCount), tubeHeight,
+                    tubePosition));
+        executor.invoke(new RecursiveAction() {
+
+            @Override
+            protected void compute() {
+                invokeAll(tasks);
+            }
+        });
+    }
+
+    //Grubun [from, to) aralığındaki kuşlarının girdilerini yazar, ağlarını hesaplar ve kararları uygular
+    private static void evaluate(final Group group, final int from,
+            final int to, final double tubeHeight, final double tubePosition) {
+        final Game game = group.game;
+        final int lanes = group.lanes;
+        final double[] state = group.state;
+        for (int j = from; j < to; ++j) {
+            state[j] = game.height[group.birds[j]] / Game.HEIGHT;
+            state[lanes + j] = tubeHeight;
+            state[2 * lanes + j] = tubePosition;
+            //Dördüncü girdi, boru boşluğunu ifade eden 1.0'a ayarlanır.
+            state[3 * lanes + j] = 1.0;
+        }
+
+        KERNEL.evaluate(group, from, to);
+
+        //Eğer çıktı, 0.5'ten büyükse kuş zıplar
+        final int output = INPUTS * lanes;
+        for (int j = from; j < to; ++j)
+            if (!game.dead[group.birds[j]] && state[output + j] > 0.5)
+                game.flap[group.birds[j]] = true;
+    }
+
+    //Verilen kuşların [from, to) aralığını Network.evaluate ile tek tek değerlendirir
+    private static void evaluate(final Game game, final int[] birds,
+            final int from, final int to, final double tubeHeight,
+            final double tubePosition) {
+        final double[][] buffers = SCRATCH.get();
+        final double[] input = buffers[0];
+        final double[] output = buffers[1];
+        input[1] = tubeHeight;
+        input[2] = tubePosition;
+        //Dördüncü girdi, boru boşluğunu ifade eden 1.0'a ayarlanır.
+        input[3] = 1.0;
+        for (int i = from; i < to; ++i)
+            game.think(birds[i], input, output);
+    }
+
+    //Vektör çekirdeğini yüklemeyi dener, modül yoksa skaler çekirdeğe döner
+    private static Kernel loadKernel() {
+        if (!Boolean.parseBoolean(System.getProperty("flappybirdai.vector", "true")))
+            return new ScalarKernel();
+        try {
+            return (Kernel) Class.forName("flappybirdai.VectorKernel")
+                    .getDeclaredConstructor().newInstance();
+        } catch (final LinkageError | ReflectiveOperationException e) {
+            return new ScalarKernel();
+        }
+    }
+
+    //Network.evaluate ile aynı işlem sırası; bağlantı başına iç döngü kuşlar üzerinde ardışık ilerler
+    static class ScalarKernel implements Kernel {
+
+        //Her iş parçacığının kısmi toplamları
+        private static final ThreadLocal<double[]> SUMS = new ThreadLocal<double[]>() {
+
+            @Override
+            protected double[] initialValue() {
+                return new double[GRAIN];
+            }
+        };
+
+        @Override
+        public void evaluate(final Group group, final int from, final int to) {
+            double[] sums = SUMS.get();
+            if (sums.length < to - from) {
+                sums = new double[to - from];
+                SUMS.set(sums);
+            }
+
+            final int lanes = group.lanes;
+            final int[] order = group.order;
+            final int[] start = group.start;
+            final int[] sources = group.sources;
+            final double[] weights = group.weights;
+            final double[] state = group.state;
+            final Activation activation = group.activation;
+            final int count = to - from;
+            for (int i = 0; i < order.length; ++i) {
+                Arrays.fill(sums, 0, count, 0.0);
+                for (int l = start[i]; l < start[i + 1]; ++l) {
+                    final int w = l * lanes + from;
+                    final int s = sources[l] * lanes + from;
+                    for (int j = 0; j < count; ++j)
+                        sums[j] += weights[w + j] * state[s + j];
+                }
+                final int target = order[i] * lanes + from;
+                for (int j = 0; j < count; ++j)
+                    state[target + j] = activation.apply(sums[j]);
+            }
+        }
+    }
+
+    //Bir grubun bir parçasını değerlendiren görev
+    private static class Task extends RecursiveAction {
+
+        private final Group group;
+        private final int from;
+        private final int to;
+        private final double tubeHeight;
+        private final double tubePosition;
+
+        private Task(final Group group, final int from, final int to,
+                final double tubeHeight, final double tubePosition) {
+            this.group = group;
+            this.from = from;
+            this.to = to;
+            this.tubeHeight = tubeHeight;
+            this.tubePosition = tubePosition;
+        }
+
+        @Override
+        protected void compute() {
+            evaluate(group, from, to, tubeHeight, tubePosition);
+        }
+    }
+
+    //Tek kuşların bir parçasını değerlendiren görev
+    private static class SingleTask extends RecursiveAction {
+
+        private final Game game;
+        private final int[] birds;
+        private final int from;
+        private final int to;
+        private final double tubeHeight;
+        private final double tubePosition;
+
+        private SingleTask(final Game game, final int[] birds, final int from,
+                final int to, final double tubeHeight,
+                final double tubePosition) {
+            this.game = game;
+            this.birds = birds;
+            this.from = from;
+            this.to = to;
+            this.tubeHeight = tubeHeight;
+            this.tubePosition = tubePosition;
+        }
+
+        @Override
+        protected void compute() {
+            evaluate(game, birds, from, to, tubeHeight, tubePosition);
+        }
+    }
+}
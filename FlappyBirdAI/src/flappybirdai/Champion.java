@@ -0,0 +1,65 @@
+package flappybirdai;
+
+import static flappybirdai.Pool.INPUTS;
+import static flappybirdai.Pool.OUTPUTS;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+
+/*
+Writes the compiled network of a genome in the file format read by Controller,
+together with the field size used to scale the inputs and the flap threshold.
+
+Bir genomun derlenmiş ağını, girdileri ölçeklemek için kullanılan oyun alanı
+boyutu ve zıplama eşiğiyle birlikte Controller'ın okuduğu biçimde yazar.
+*/
+public class Champion {
+
+    public static final double THRESHOLD = 0.5;         //Game.think ile aynı zıplama eşiği
+
+    private Champion() {
+    }
+
+    //Genomu dosyaya yazar; dosya geçici bir dosyadan taşınarak değiştirilir
+    public static void export(final Genome genome, final Path path)
+            throws IOException {
+        Checkpoint.write(path, encode(genome));
+    }
+
+    public static ByteBuffer encode(final Genome genome) {
+        final Network network = new Network(genome.genes,
+                genome.pool.config.activation);
+        final int evaluated = network.order.length;
+        final int links = network.sources.length;
+
+        final ByteBuffer buffer = ByteBuffer.allocate(4 + 4 + 3 * 8 + 6 * 4
+                + evaluated * 4 + (evaluated + 1) * 4 + links * 12 + 4);
+        buffer.putInt(Controller.MAGIC);
+        buffer.putInt(Controller.VERSION);
+        buffer.putDouble(Game.WIDTH);
+        buffer.putDouble(Game.HEIGHT);
+        buffer.putDouble(THRESHOLD);
+        buffer.putInt(network.activation.ordinal());
+        buffer.putInt(INPUTS);
+        buffer.putInt(OUTPUTS);
+        buffer.putInt(network.neurons);
+        buffer.putInt(evaluated);
+        buffer.putInt(links);
+        for (final int n : network.order)
+            buffer.putInt(n);
+        for (final int s : network.start)
+            buffer.putInt(s);
+        for (final int s : network.sources)
+            buffer.putInt(s);
+        for (final double w : network.weights)
+            buffer.putDouble(w);
+
+        final CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+        return buffer;
+    }
+}
@@ -0,0 +1,238 @@
+package flappybirdai;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/*
+A compact binary snapshot of a training run: the configuration, every species
+and genome, the pool counters and the master seed. Every random stream is derived
+from the seed and the generation (Streams), so a run resumed from a checkpoint
+continues exactly like the uninterrupted run. Only the current VERSION is read.
+
+Bir eğitim çalışmasının sıkıştırılmış ikili görüntüsü: ayarlar, bütün türler ve
+genomlar, havuz sayaçları ve ana tohum. Bütün akışlar tohumdan ve jenerasyondan
+türetildiği için (Streams) kayıttan devam eden bir çalışma, hiç durmamış gibi
+aynı şekilde ilerler. Sadece güncel VERSION okunur.
+
+Biçim (big-endian):
+  int magic, int version
+  Config alanları, int aktivasyon
+  int generation, int innovation, double maxFitness
+  long ana tohum
+  int tür sayısı, her tür için:
+    double topFitness, double averageFitness, int staleness, int genom sayısı
+    her genom için:
+      double fitness, int maxNeuron, int globalRank, 7 x double mutationRates
+      int gen sayısı, her gen için: int input, int output, double weight,
+      byte enabled, int innovation
+*/
+public class Checkpoint {
+
+    private static final int MAGIC = 0x46424350;       //"FBCP"
+    private static final int VERSION = 4;
+
+    //Kayıtta bir türün, genomun ve genin en az bayt sayısı
+    private static final int SPECIES_BYTES = 8 + 8 + 4 + 4;
+    private static final int GENOME_BYTES = 8 + 4 + 4 + 7 * 8 + 4;
+    private static final int GENE_BYTES = 4 + 4 + 8 + 1 + 4;
+
+    public final Pool pool;             //Geri yüklenen havuz
+
+    private Checkpoint(final Pool pool) {
+        this.pool = pool;
+    }
+
+    //Havuzu bir tampona yazar. Jenerasyonlar arasında çağrılmalıdır
+    public static ByteBuffer encode(final Pool pool) {
+        int size = 4 + 4 + 3 * 4 + 12 * 8 + 4 + 4 + 4 + 8 + 8 + 4;
+        for (final Species species : pool.species) {
+            size += SPECIES_BYTES;
+            for (final Genome genome : species.genomes)
+                size += GENOME_BYTES + genome.genes.size() * GENE_BYTES;
+        }
+
+        final ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+
+        final Config config = pool.config;
+        buffer.putInt(config.population);
+        buffer.putInt(config.staleSpecies);
+        buffer.putInt(config.timeout);
+        buffer.putDouble(config.deltaDisjoint);
+        buffer.putDouble(config.deltaWeights);
+        buffer.putDouble(config.deltaThreshold);
+        buffer.putDouble(config.connMutation);
+        buffer.putDouble(config.linkMutation);
+        buffer.putDouble(config.biasMutation);
+        buffer.putDouble(config.nodeMutation);
+        buffer.putDouble(config.enableMutation);
+        buffer.putDouble(config.disableMutation);
+        buffer.putDouble(config.stepSize);
+        buffer.putDouble(config.perturbation);
+        buffer.putDouble(config.crossover);
+        buffer.putInt(config.activation.ordinal());
+
+        buffer.putInt(pool.generation);
+        buffer.putInt(pool.innovation);
+        buffer.putDouble(pool.maxFitness);
+        buffer.putLong(pool.streams.seed);
+
+        buffer.putInt(pool.species.size());
+        for (final Species species : pool.species) {
+            buffer.putDouble(species.topFitness);
+            buffer.putDouble(species.averageFitness);
+            buffer.putInt(species.staleness);
+            buffer.putInt(species.genomes.size());
+            for (final Genome genome : species.genomes) {
+                buffer.putDouble(genome.fitness);
+                buffer.putInt(genome.maxNeuron);
+                buffer.putInt(genome.globalRank);
+                for (int i = 0; i < 7; ++i)
+                    buffer.putDouble(genome.mutationRates[i]);
+                buffer.putInt(genome.genes.size());
+                for (final Synapse gene : genome.genes) {
+                    buffer.putInt(gene.input);
+                    buffer.putInt(gene.output);
+                    buffer.putDouble(gene.weight);
+                    buffer.put((byte) (gene.enabled ? 1 : 0));
+                    buffer.putInt(gene.innovation);
+                }
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    //Tamponu geçici bir dosyaya yazar ve ardından hedefin yerine taşır
+    public static void write(final Path path, final ByteBuffer buffer)
+            throws IOException {
+        final Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+            channel.force(false);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    //Kayıt dosyasını belleğe eşleyerek okur
+    public static Checkpoint read(final Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE)
+                throw new IOException("Checkpoint too large");
+            return decode(channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    channel.size()));
+        }
+    }
+
+    /*
+    Tampondaki kaydı okur. Bozuk ya da kesik bir kayıt, hangi alanda bozulmuş olursa
+    olsun IOException ile reddedilir; sayılar kalan uzunluğa göre, her genomun
+    innovation numaraları artan sıraya ve havuzun sayacına göre denetlenir.
+    */
+    public static Checkpoint decode(final ByteBuffer buffer)
+            throws IOException {
+        try {
+            return decodeChecked(buffer);
+        } catch (final RuntimeException e) {
+            throw new IOException("Corrupt checkpoint: " + e, e);
+        }
+    }
+
+    private static Checkpoint decodeChecked(final ByteBuffer buffer)
+            throws IOException {
+        if (buffer.remaining() < 8 || buffer.getInt() != MAGIC)
+            throw new IOException("Not a checkpoint file");
+        final int version = buffer.getInt();
+        if (version != VERSION)
+            throw new IOException("Unsupported checkpoint version " + version);
+
+        final Config config = new Config();
+        config.population = buffer.getInt();
+        config.staleSpecies = buffer.getInt();
+        config.timeout = buffer.getInt();
+        config.deltaDisjoint = buffer.getDouble();
+        config.deltaWeights = buffer.getDouble();
+        config.deltaThreshold = buffer.getDouble();
+        config.connMutation = buffer.getDouble();
+        config.linkMutation = buffer.getDouble();
+        config.biasMutation = buffer.getDouble();
+        config.nodeMutation = buffer.getDouble();
+        config.enableMutation = buffer.getDouble();
+        config.disableMutation = buffer.getDouble();
+        config.stepSize = buffer.getDouble();
+        config.perturbation = buffer.getDouble();
+        config.crossover = buffer.getDouble();
+        final int activation = buffer.getInt();
+        if (activation < 0 || activation >= Activation.values().length)
+            throw new IOException("Invalid activation " + activation);
+        config.activation = Activation.values()[activation];
+
+        final int generation = buffer.getInt();
+        final int innovation = buffer.getInt();
+        final double maxFitness = buffer.getDouble();
+        final long seed = buffer.getLong();
+
+        final Pool pool = new Pool(config, new Streams(seed));
+        pool.generation = generation;
+        pool.innovation = innovation;
+        pool.maxFitness = maxFitness;
+
+        final int speciesCount = count(buffer, SPECIES_BYTES);
+        for (int s = 0; s < speciesCount; ++s) {
+            final Species species = new Species(pool);
+            species.topFitness = buffer.getDouble();
+            species.averageFitness = buffer.getDouble();
+            species.staleness = buffer.getInt();
+            final int genomeCount = count(buffer, GENOME_BYTES);
+            for (int g = 0; g < genomeCount; ++g) {
+                final Genome genome = new Genome(pool);
+                genome.fitness = buffer.getDouble();
+                genome.maxNeuron = buffer.getInt();
+                genome.globalRank = buffer.getInt();
+                for (int i = 0; i < 7; ++i)
+                    genome.mutationRates[i] = buffer.getDouble();
+                final int geneCount = count(buffer, GENE_BYTES);
+                int previous = 0;
+                for (int i = 0; i < geneCount; ++i) {
+                    final Synapse gene = new Synapse();
+                    gene.input = buffer.getInt();
+                    gene.output = buffer.getInt();
+                    gene.weight = buffer.getDouble();
+                    gene.enabled = buffer.get() != 0;
+                    gene.innovation = buffer.getInt();
+                    //disjoint, weights ve crossover genlerin tekil ve artan innovation sırasına dayanır
+                    if (gene.innovation <= previous || gene.innovation > innovation)
+                        throw new IOException("Invalid innovation " + gene.innovation);
+                    previous = gene.innovation;
+                    genome.genes.add(gene);
+                }
+                species.genomes.add(genome);
+            }
+            pool.species.add(species);
+        }
+        return new Checkpoint(pool);
+    }
+
+    /*
+    Bir sayıyı okur; her öğe en az 'bytes' bayt tuttuğu için sayı, kalan uzunluğa
+    sığmıyorsa ya da negatifse kayıt bozuktur.
+    */
+    private static int count(final ByteBuffer buffer, final int bytes)
+            throws IOException {
+        final int count = buffer.getInt();
+        if (count < 0 || (long) count * bytes > buffer.remaining())
+            throw new IOException("Invalid count " + count);
+        return count;
+    }
+}
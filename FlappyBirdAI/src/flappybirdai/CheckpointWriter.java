@@ -0,0 +1,79 @@
+package flappybirdai;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/*
+Writes checkpoints in the background. The snapshot is encoded on the training
+thread between generations, which only copies memory; the file is written on a
+separate thread so training does not wait for the disk.
+
+Kayıtları arka planda yazar. Görüntü jenerasyonlar arasında eğitim iş parçacığında
+belleğe kopyalanır; dosya ayrı bir iş parçacığında yazılır, böylece eğitim diski
+beklemez.
+*/
+public class CheckpointWriter {
+
+    private final Path path;
+    private final int interval;             //Kaç jenerasyonda bir kayıt alınır
+    private int saved = -1;                 //En son kaydedilen jenerasyon
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(
+            new ThreadFactory() {
+
+                @Override
+                public Thread newThread(final Runnable runnable) {
+                    final Thread thread = new Thread(runnable, "checkpoint-writer");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+
+    public CheckpointWriter(final Path path, final int interval) {
+        if (interval < 1)
+            throw new IllegalArgumentException("interval < 1");
+        this.path = path;
+        this.interval = interval;
+    }
+
+    //Jenerasyon sayısı aralığa denk geliyorsa kayıt alır
+    public void generationDone(final Pool pool) {
+        if (pool.generation % interval == 0)
+            save(pool);
+    }
+
+    //Eğitim bittiğinde son jenerasyon kaydedilmemişse kaydeder
+    public void finish(final Pool pool) {
+        if (pool.generation != saved)
+            save(pool);
+    }
+
+    //Görüntüyü hemen alır, dosyayı arka planda yazar
+    public void save(final Pool pool) {
+        final ByteBuffer buffer = Checkpoint.encode(pool);
+        final int generation = pool.generation;
+        saved = generation;
+        writer.execute(new Runnable() {
+
+            @Override
+            public void run() {
+                try {
+                    Checkpoint.write(path, buffer);
+                } catch (final IOException e) {
+                    System.err.println("Jenerasyon " + generation
+                            + " kaydı yazılamadı: " + e);
+                }
+            }
+        });
+    }
+
+    //Bekleyen yazmaların bitmesini bekler
+    public void close() throws InterruptedException {
+        writer.shutdown();
+        writer.awaitTermination(1, TimeUnit.MINUTES);
+    }
+}
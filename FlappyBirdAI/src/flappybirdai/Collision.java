@@ -0,0 +1,296 @@
+package flappybirdai;
+
+import static flappybirdai.Game.BIRD_HEIGHT;
+import static flappybirdai.Game.BIRD_WIDTH;
+import static flappybirdai.Game.HEIGHT;
+import static flappybirdai.Game.TUBE_APERTURE;
+import static flappybirdai.Game.TUBE_HEIGHT;
+import static flappybirdai.Game.TUBE_WIDTH;
+import static flappybirdai.Game.WIDTH;
+
+import java.util.Arrays;
+
+/*
+Bird versus tube collision without allocation. It gives exactly the same answers
+as transforming Game's bounds polygon with an AffineTransform and calling
+Shape.intersects on the tube rectangles: the transform is built with the same
+double operations AffineTransform uses, the points are rounded to float like
+Path2D.Float, and the rectangle test is a port of Path2D.Float.rectCrossings and
+Curve.rectCrossingsForLine.
+
+A bird's angle only takes a few dozen distinct values (velocity always starts
+from the same flap or ceiling value and falls by the same step), so the rotated
+polygon is computed once per exact angle and kept in a small table. All birds
+share the same x position, so the tubes they can touch are found once per tick.
+
+Kuş ile boru çarpışmasını bellek ayırmadan hesaplar. Sonuçlar, sınır çokgenini
+AffineTransform ile dönüştürüp Shape.intersects çağırmakla birebir aynıdır.
+Kuşun açısı sadece birkaç düzine farklı değer alır; döndürülmüş çokgen her açı için
+bir kez hesaplanır. Bütün kuşların x konumu aynı olduğundan, dokunulabilecek
+borular her adımda bir kez bulunur.
+*/
+class Collision {
+
+    private static final int RECT_INTERSECTS = 0x80000000;     //Curve.RECT_INTERSECTS
+    private static final long EMPTY = Long.MIN_VALUE;           //NaN olmayan açılar bu bit dizisini almaz
+    private static final int CAPACITY = 4096;                   //Tablo dolarsa boşaltılır
+
+    //Kuşun sol kenarı ve dönme merkezi (Game.update'teki dönüşüm)
+    private static final int LEFT = WIDTH / 3 - BIRD_HEIGHT / 2;
+    private static final int ANCHOR_X = BIRD_WIDTH / 2;
+    private static final int ANCHOR_Y = BIRD_HEIGHT / 2;
+    private static final int OFFSET_Y = 52;
+
+    private final float[] xs;           //Çokgenin köşeleri (Path2D.Float gibi float)
+    private final float[] ys;
+    private final double reach;         //Dönme merkezinden en uzak köşenin uzaklığı
+
+    //Açı tablosu: açının bitleri -> satır
+    private long[] keys = new long[64];
+    private int[] rows = new int[64];
+    private int size;
+    private double[][] rotatedX = new double[32][];    //m00 * x + m01 * y
+    private double[][] rotatedY = new double[32][];    //m10 * x + m11 * y
+    private double[] shiftX = new double[32];          //Son iki öteleme sonrası m02 katkıları
+    private double[] shiftX2 = new double[32];
+    private double[] shiftY = new double[32];
+    private double[] shiftY2 = new double[32];
+
+    //Bu adımda dokunulabilecek boruların konumları ve yükseklikleri
+    private final double[] windowPosition = new double[Game.TUBES];
+    private final double[] windowHeight = new double[Game.TUBES];
+    private int windowSize;
+
+    //Dönüştürülmüş köşeler
+    private final double[] px;
+    private final double[] py;
+
+    Collision(final int[] xs, final int[] ys) {
+        this.xs = new float[xs.length];
+        this.ys = new float[ys.length];
+        double reach = 0.0;
+        for (int i = 0; i < xs.length; ++i) {
+            this.xs[i] = xs[i];
+            this.ys[i] = ys[i];
+            reach = Math.max(reach, Math.hypot(xs[i] - ANCHOR_X,
+                    ys[i] + OFFSET_Y - ANCHOR_Y));
+        }
+        this.reach = reach;
+        px = new double[xs.length];
+        py = new double[xs.length];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    //Kuşların x aralığıyla kesişebilecek boruları seçer. Borular hareket ettikten sonra her adımda bir kez çağrılır
+    void prepare(final Game game) {
+        //Bir piksel pay, float yuvarlamasını karşılar
+        final double min = LEFT + ANCHOR_X - reach - 1.0;
+        final double max = LEFT + ANCHOR_X + reach + 1.0;
+        windowSize = 0;
+        for (int i = 0; i < game.tubeCount; ++i) {
+            final int t = game.tube(i);
+            final double position = game.tubePosition[t];
+            if (position < max && position + TUBE_WIDTH > min) {
+                windowPosition[windowSize] = position;
+                windowHeight[windowSize++] = game.tubeHeight[t];
+            }
+        }
+    }
+
+    //Verilen açı ve yükseklikteki kuş seçili borulardan birine çarpıyor mu
+    boolean hits(final double angle, final double height) {
+        if (windowSize == 0)
+            return false;
+
+        //AffineTransform: translate(LEFT, HEIGHT - height), rotate(θ, ANCHOR_X, ANCHOR_Y), translate(0, 52)
+        final int row = row(angle);
+        final double m02 = shiftX2[row] + (shiftX[row] + (ANCHOR_X + LEFT));
+        final double m12 = shiftY2[row] + (shiftY[row]
+                + (ANCHOR_Y + (HEIGHT - height)));
+        final double[] rx = rotatedX[row];
+        final double[] ry = rotatedY[row];
+        for (int i = 0; i < px.length; ++i) {
+            px[i] = (float) (rx[i] + m02);
+            py[i] = (float) (ry[i] + m12);
+        }
+
+        for (int t = 0; t < windowSize; ++t) {
+            final double position = windowPosition[t];
+            final double tube = windowHeight[t];
+            if (intersects(position,
+                    HEIGHT - tube - TUBE_APERTURE - TUBE_HEIGHT,
+                    TUBE_WIDTH, TUBE_HEIGHT)
+                    || intersects(position, HEIGHT - tube, TUBE_WIDTH,
+                            TUBE_HEIGHT))
+                return true;
+        }
+        return false;
+    }
+
+    //Açının satırını bulur, yoksa döndürülmüş çokgeni hesaplayıp ekler
+    private int row(final double angle) {
+        final long key = Double.doubleToLongBits(angle);
+        final int mask = keys.length - 1;
+        int slot = (int) (key ^ key >>> 32) * 0x9E3779B9 & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key)
+                return rows[slot];
+            slot = (slot + 1) & mask;
+        }
+
+        //Oyunda açılar sınırlı bir kümedir; yine de tablo sınırsız büyümez
+        if (size == CAPACITY) {
+            Arrays.fill(keys, EMPTY);
+            size = 0;
+            return row(angle);
+        }
+
+        //AffineTransform.rotate(θ) ile aynı özel durumlar
+        final double theta = -angle / 180.0 * Math.PI;
+        double sin = Math.sin(theta);
+        double cos;
+        if (sin == 1.0 || sin == -1.0)
+            cos = 0.0;
+        else {
+            cos = Math.cos(theta);
+            if (cos == -1.0 || cos == 1.0)
+                sin = 0.0;
+        }
+        final double m00 = cos;
+        final double m01 = -sin;
+        final double m10 = sin;
+        final double m11 = cos;
+
+        final int row = size;
+        if (row == rotatedX.length) {
+            rotatedX = Arrays.copyOf(rotatedX, row * 2);
+            rotatedY = Arrays.copyOf(rotatedY, row * 2);
+            shiftX = Arrays.copyOf(shiftX, row * 2);
+            shiftX2 = Arrays.copyOf(shiftX2, row * 2);
+            shiftY = Arrays.copyOf(shiftY, row * 2);
+            shiftY2 = Arrays.copyOf(shiftY2, row * 2);
+        }
+        rotatedX[row] = new double[xs.length];
+        rotatedY[row] = new double[xs.length];
+        for (int i = 0; i < xs.length; ++i) {
+            final double x = xs[i];
+            final double y = ys[i];
+            rotatedX[row][i] = m00 * x + m01 * y;
+            rotatedY[row][i] = m10 * x + m11 * y;
+        }
+        //translate(-ANCHOR_X, -ANCHOR_Y) ve translate(0, 52)
+        shiftX[row] = -ANCHOR_X * m00 + -ANCHOR_Y * m01;
+        shiftY[row] = -ANCHOR_X * m10 + -ANCHOR_Y * m11;
+        shiftX2[row] = 0.0 * m00 + OFFSET_Y * m01;
+        shiftY2[row] = 0.0 * m10 + OFFSET_Y * m11;
+
+        keys[slot] = key;
+        rows[slot] = row;
+        if (++size * 2 > keys.length)
+            grow();
+        return row;
+    }
+
+    private void grow() {
+        final long[] oldKeys = keys;
+        final int[] oldRows = rows;
+        keys = new long[oldKeys.length * 2];
+        rows = new int[oldRows.length * 2];
+        Arrays.fill(keys, EMPTY);
+        final int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; ++i)
+            if (oldKeys[i] != EMPTY) {
+                final long key = oldKeys[i];
+                int slot = (int) (key ^ key >>> 32) * 0x9E3779B9 & mask;
+                while (keys[slot] != EMPTY)
+                    slot = (slot + 1) & mask;
+                keys[slot] = key;
+                rows[slot] = oldRows[i];
+            }
+    }
+
+    //Path2D.intersects(x, y, w, h), çift-tek kuralıyla
+    private boolean intersects(final double x, final double y, final double w,
+            final double h) {
+        final int crossings = rectCrossings(x, y, x + w, y + h);
+        return crossings == RECT_INTERSECTS || (crossings & 2) != 0;
+    }
+
+    //Path2D.Float.rectCrossings: moveTo, lineTo'lar ve closePath
+    private int rectCrossings(final double rxmin, final double rymin,
+            final double rxmax, final double rymax) {
+        final double movx = px[0];
+        final double movy = py[0];
+        double curx = movx;
+        double cury = movy;
+        int crossings = 0;
+        for (int i = 1; crossings != RECT_INTERSECTS && i < px.length; ++i) {
+            crossings = rectCrossingsForLine(crossings, rxmin, rymin, rxmax,
+                    rymax, curx, cury, px[i], py[i]);
+            curx = px[i];
+            cury = py[i];
+        }
+        if (crossings != RECT_INTERSECTS && (curx != movx || cury != movy))
+            crossings = rectCrossingsForLine(crossings, rxmin, rymin, rxmax,
+                    rymax, curx, cury, movx, movy);
+        return crossings;
+    }
+
+    //sun.awt.geom.Curve.rectCrossingsForLine
+    private static int rectCrossingsForLine(int crossings, final double rxmin,
+            final double rymin, final double rxmax, final double rymax,
+            final double x0, final double y0, final double x1, final double y1) {
+        if (y0 >= rymax && y1 >= rymax)
+            return crossings;
+        if (y0 <= rymin && y1 <= rymin)
+            return crossings;
+        if (x0 <= rxmin && x1 <= rxmin)
+            return crossings;
+        if (x0 >= rxmax && x1 >= rxmax) {
+            //Doğru dikdörtgenin tamamen sağında, sağ gölgeyi kesen geçişler sayılır
+            if (y0 < y1) {
+                if (y0 <= rymin)
+                    crossings++;
+                if (y1 >= rymax)
+                    crossings++;
+            } else if (y1 < y0) {
+                if (y1 <= rymin)
+                    crossings--;
+                if (y0 >= rymax)
+                    crossings--;
+            }
+            return crossings;
+        }
+        //Uçlardan biri dikdörtgenin içindeyse kesişir
+        if ((x0 > rxmin && x0 < rxmax && y0 > rymin && y0 < rymax)
+                || (x1 > rxmin && x1 < rxmax && y1 > rymin && y1 < rymax))
+            return RECT_INTERSECTS;
+        double xi0 = x0;
+        if (y0 < rymin)
+            xi0 += ((rymin - y0) * (x1 - x0) / (y1 - y0));
+        else if (y0 > rymax)
+            xi0 += ((rymax - y0) * (x1 - x0) / (y1 - y0));
+        double xi1 = x1;
+        if (y1 < rymin)
+            xi1 += ((rymin - y1) * (x0 - x1) / (y0 - y1));
+        else if (y1 > rymax)
+            xi1 += ((rymax - y1) * (x0 - x1) / (y0 - y1));
+        if (xi0 <= rxmin && xi1 <= rxmin)
+            return crossings;
+        if (xi0 >= rxmax && xi1 >= rxmax) {
+            if (y0 < y1) {
+                if (y0 <= rymin)
+                    crossings++;
+                if (y1 >= rymax)
+                    crossings++;
+            } else if (y1 < y0) {
+                if (y1 <= rymin)
+                    crossings--;
+                if (y0 >= rymax)
+                    crossings--;
+            }
+            return crossings;
+        }
+        return RECT_INTERSECTS;
+    }
+}
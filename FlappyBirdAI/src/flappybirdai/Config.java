@@ -0,0 +1,41 @@
+package flappybirdai;
+
+//Tuning parameters of one training run
+//Bir eğitim çalışmasının ayar değerleri
+public class Config {
+    public int population = 50;             //Başlangıç için50 kuş
+    public int staleSpecies = 15;           //removeStaleSpecies() metodu için bir eşik değeri
+    /*
+    Uygunluğu bu kadar adım boyunca yeni bir en yüksek değere ulaşmayan kuş takılmış
+    sayılır ve çıkarılır, 0 ise kapalı. Borular arasında süzülmeyi öğrenen kuşlar da
+    sık zıpladığı için uzun süre rekor kıramaz; bu yüzden isteğe bağlıdır.
+    */
+    public int timeout = 0;
+
+    //Mutasyonlarda belirli yöntemler için eşik değeri olarak kullanılan değerler
+    public double deltaDisjoint = 2.0;
+    public double deltaWeights = 0.4;
+    public double deltaThreshold = 1.0;
+    public double connMutation = 0.25;
+    public double linkMutation = 2.0;
+    public double biasMutation = 0.4;
+    public double nodeMutation = 0.5;
+    public double enableMutation = 0.2;
+    public double disableMutation = 0.4;
+    public double stepSize = 0.1;
+    public double perturbation = 0.9;
+    public double crossover = 0.75;
+
+    //Nöronların aktivasyon fonksiyonu
+    public Activation activation = Activation.EXACT;
+
+    //Bir jenerasyonun en fazla adım sayısı, 0 ise sınırsız; böylece bir jenerasyon sonsuza kadar sürmez. Kayıtlara yazılmaz
+    public int generationTicks = 10000;
+    //Canlı oyunda bir jenerasyonun simülasyonuna harcanabilecek en fazla süre (ms), 0 ise sınırsız. Kayıtlara yazılmaz
+    public long generationMillis = 0;
+
+    //Aynı topolojili ağları toplu değerlendirir (BatchEvaluator). Kayıtlara yazılmaz
+    public boolean batch = false;
+    //Uzun yaşayan genomların ağlarını bayt koduna derler (NetworkCompiler). Kayıtlara yazılmaz
+    public boolean compile = false;
+}
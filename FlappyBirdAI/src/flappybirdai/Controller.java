@@ -0,0 +1,281 @@
+package flappybirdai;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/*
+A standalone runtime for an exported champion. It only depends on the JDK, so it
+can be copied into another service without Pool, Species or the Swing game. The
+file is validated when loaded; after that decide() does no allocation and no
+lookups, just one pass over flat arrays.
+
+A Controller keeps the neuron values between calls, like one bird in the game,
+so an instance must not be shared between threads. newInstance() returns a
+controller with its own state that shares the loaded network.
+
+Dışa aktarılan şampiyon için bağımsız çalışma zamanı. Sadece JDK'ya bağlıdır;
+Pool, Species ya da Swing oyunu olmadan başka bir servise kopyalanabilir. Dosya
+yüklenirken doğrulanır; sonrasında decide() bellek ayırmaz ve arama yapmaz.
+
+Controller nöron değerlerini çağrılar arasında korur (oyundaki tek bir kuş gibi),
+bu yüzden bir örnek iş parçacıkları arasında paylaşılmamalıdır.
+
+Dosya biçimi (big-endian):
+  int magic, int version
+  double width, double height, double threshold
+  int activation (0 kesin, 1 tablo, 2 rasyonel, bkz. Activation)
+  int inputs, int outputs, int neurons, int evaluated, int links
+  int[evaluated] order, int[evaluated + 1] start, int[links] sources,
+  double[links] weights
+  int CRC32 (önceki bütün baytların)
+*/
+public class Controller {
+
+    public static final int MAGIC = 0x46424348;        //"FBCH"
+    public static final int VERSION = 2;
+    public static final int INPUTS = 4;                 //Yükseklik, boru yüksekliği, boru konumu, sabit
+
+    private final double width;             //Oyun alanının genişliği, boru konumunu ölçekler
+    private final double height;            //Oyun alanının yüksekliği, yükseklikleri ölçekler
+    private final double threshold;         //Bu değerin üstündeki çıktı zıplama demektir
+    private final int activation;           //Activation sırası: 0 kesin, 1 tablo, 2 rasyonel
+    private final int[] order;              //Hesaplanan nöronların sırası
+    private final int[] start;              //order[i] nöronunun girdileri [start[i], start[i + 1])
+    private final int[] sources;
+    private final double[] weights;
+    private final int output;               //İlk çıkış nöronunun indeksi
+    private final boolean recurrent;        //Bir nöron henüz hesaplanmamış bir değeri okuyor mu
+
+    private final double[] state;           //decide() çağrıları arasında korunan nöron değerleri
+    private final double[] scratch;         //Toplu puanlamada kullanılan nöron değerleri
+
+    //Tablo aktivasyonu; Neuron.sigmoidTable ile aynı
+    private static final double RANGE = 4.0;
+    private static final int STEPS = 512;
+    private static final double[] TABLE = new double[(int) (2 * RANGE * STEPS) + 1];
+
+    static {
+        for (int i = 0; i < TABLE.length; ++i) {
+            final double x = i / (double) STEPS - RANGE;
+            TABLE[i] = 2.0 / (1.0 + Math.exp(-4.9 * x)) - 1.0;
+        }
+    }
+
+    private Controller(final double width, final double height,
+            final double threshold, final int activation, final int neurons,
+            final int[] order,
+            final int[] start, final int[] sources, final double[] weights,
+            final boolean recurrent) {
+        this.width = width;
+        this.height = height;
+        this.threshold = threshold;
+        this.activation = activation;
+        this.order = order;
+        this.start = start;
+        this.sources = sources;
+        this.weights = weights;
+        this.recurrent = recurrent;
+        output = INPUTS;
+        state = new double[neurons];
+        scratch = new double[neurons];
+        state[INPUTS - 1] = 1.0;
+        scratch[INPUTS - 1] = 1.0;
+    }
+
+    //Dosyayı okur ve doğrular
+    public static Controller load(final Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.READ)) {
+            final ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining())
+                if (channel.read(buffer) < 0)
+                    throw new IOException("Truncated champion file");
+            buffer.flip();
+            return read(buffer);
+        }
+    }
+
+    public static Controller read(final ByteBuffer buffer) throws IOException {
+        try {
+            final int end = buffer.limit() - 4;
+            if (end < 8)
+                throw new IOException("Not a champion file");
+            final byte[] body = new byte[end];
+            buffer.duplicate().get(body);
+            final CRC32 crc = new CRC32();
+            crc.update(body, 0, end);
+            if ((int) crc.getValue() != buffer.getInt(end))
+                throw new IOException("Champion file checksum mismatch");
+
+            if (buffer.getInt() != MAGIC)
+                throw new IOException("Not a champion file");
+            final int version = buffer.getInt();
+            if (version != VERSION)
+                throw new IOException("Unsupported champion version " + version);
+
+            final double width = buffer.getDouble();
+            final double height = buffer.getDouble();
+            final double threshold = buffer.getDouble();
+            if (!(width > 0.0) || !(height > 0.0) || Double.isNaN(threshold))
+                throw new IOException("Invalid field size");
+            final int activation = buffer.getInt();
+            if (activation < 0 || activation > 2)
+                throw new IOException("Invalid activation " + activation);
+
+            final int inputs = buffer.getInt();
+            final int outputs = buffer.getInt();
+            final int neurons = buffer.getInt();
+            final int evaluated = buffer.getInt();
+            final int links = buffer.getInt();
+            if (inputs != INPUTS || outputs < 1 || neurons < inputs + outputs
+                    || evaluated < 0 || evaluated > neurons - inputs
+                    || links < 0 || links > (end - buffer.position()) / 12)
+                throw new IOException("Invalid network size");
+
+            final int[] order = new int[evaluated];
+            final int[] position = new int[neurons];
+            Arrays.fill(position, -1);
+            for (int i = 0; i < evaluated; ++i) {
+                order[i] = buffer.getInt();
+                if (order[i] < inputs || order[i] >= neurons
+                        || position[order[i]] >= 0)
+                    throw new IOException("Invalid neuron order");
+                position[order[i]] = i;
+            }
+
+            final int[] start = new int[evaluated + 1];
+            for (int i = 0; i <= evaluated; ++i) {
+                start[i] = buffer.getInt();
+                if (i == 0 ? start[i] != 0 : start[i] < start[i - 1])
+                    throw new IOException("Invalid link offsets");
+            }
+            if (start[evaluated] != links)
+                throw new IOException("Invalid link offsets");
+
+            final int[] sources = new int[links];
+            for (int l = 0; l < links; ++l) {
+                sources[l] = buffer.getInt();
+                if (sources[l] < 0 || sources[l] >= neurons)
+                    throw new IOException("Invalid link source");
+            }
+            final double[] weights = new double[links];
+            for (int l = 0; l < links; ++l) {
+                weights[l] = buffer.getDouble();
+                if (Double.isNaN(weights[l]) || Double.isInfinite(weights[l]))
+                    throw new IOException("Invalid link weight");
+            }
+            if (buffer.position() != end)
+                throw new IOException("Trailing data in champion file");
+
+            //Kaynağı hedefle aynı anda ya da sonra hesaplanan bağlantı, önceki değeri okur
+            boolean recurrent = false;
+            for (int i = 0; i < evaluated && !recurrent; ++i)
+                for (int l = start[i]; l < start[i + 1]; ++l)
+                    if (position[sources[l]] >= i) {
+                        recurrent = true;
+                        break;
+                    }
+
+            return new Controller(width, height, threshold, activation,
+                    neurons, order, start, sources, weights, recurrent);
+        } catch (final BufferUnderflowException e) {
+            throw new IOException("Truncated champion file", e);
+        }
+    }
+
+    //Aynı ağı paylaşan, kendi durumu olan yeni bir örnek
+    public Controller newInstance() {
+        return new Controller(width, height, threshold, activation,
+                state.length, order, start, sources, weights, recurrent);
+    }
+
+    //Nöron değerlerini sıfırlar (yeni bir oyunun başlangıcı)
+    public void reset() {
+        Arrays.fill(state, 0.0);
+        state[INPUTS - 1] = 1.0;
+    }
+
+    /*
+    Kuşun zıplayıp zıplamayacağını söyler. Değerler oyun alanının piksel
+    koordinatlarıdır: kuşun yüksekliği, sonraki borunun yüksekliği ve sol kenarı.
+    */
+    public boolean decide(final double height, final double tubeHeight,
+            final double tubeX) {
+        return score(state, height, tubeHeight, tubeX) > threshold;
+    }
+
+    /*
+    Birçok girdi vektörünü tek çağrıda puanlar. 'vectors' ardışık (yükseklik, boru
+    yüksekliği, boru konumu) üçlüleridir; her biri bağımsız, boş bir durumdan
+    hesaplanır ve ham çıktısı 'scores' dizisine yazılır. decide() durumunu bozmaz.
+    */
+    public void score(final double[] vectors, final double[] scores,
+            final int count) {
+        if (vectors.length < count * 3 || scores.length < count)
+            throw new IllegalArgumentException("arrays too short for " + count);
+        final double[] scratch = this.scratch;
+        for (int v = 0, i = 0; v < count; ++v, i += 3) {
+            if (recurrent) {
+                Arrays.fill(scratch, 0.0);
+                scratch[INPUTS - 1] = 1.0;
+            }
+            scores[v] = score(scratch, vectors[i], vectors[i + 1],
+                    vectors[i + 2]);
+        }
+    }
+
+    //Toplu puanlamanın zıplama kararları
+    public void decide(final double[] vectors, final boolean[] flaps,
+            final double[] scores, final int count) {
+        score(vectors, scores, count);
+        for (int v = 0; v < count; ++v)
+            flaps[v] = scores[v] > threshold;
+    }
+
+    private double score(final double[] state, final double height,
+            final double tubeHeight, final double tubeX) {
+        state[0] = height / this.height;
+        state[1] = tubeHeight / this.height;
+        state[2] = tubeX / width;
+
+        final int[] order = this.order;
+        final int[] start = this.start;
+        final int[] sources = this.sources;
+        final double[] weights = this.weights;
+        for (int i = 0; i < order.length; ++i) {
+            double sum = 0.0;
+            for (int l = start[i]; l < start[i + 1]; ++l)
+                sum += weights[l] * state[sources[l]];
+            state[order[i]] = activate(sum);
+        }
+        return state[output];
+    }
+
+    //Eğitimde kullanılan aktivasyon; Neuron'daki fonksiyonlarla aynı işlemler
+    private double activate(final double x) {
+        if (activation == 1) {
+            final double t = (x + RANGE) * STEPS;
+            if (t <= 0.0)
+                return -1.0;
+            if (t >= TABLE.length - 1)
+                return 1.0;
+            final int i = (int) t;
+            final double a = TABLE[i];
+            return a + (TABLE[i + 1] - a) * (t - i);
+        }
+        if (activation == 2) {
+            final double y = 2.45 * x;
+            final double y2 = y * y;
+            final double r = y * (135135.0 + y2 * (17325.0 + y2 * (378.0 + y2)))
+                    / (135135.0 + y2 * (62370.0 + y2 * (3150.0 + y2 * 28.0)));
+            return Math.max(-1.0, Math.min(1.0, r));
+        }
+        return 2.0 / (1.0 + Math.exp(-4.9 * x)) - 1.0;
+    }
+}
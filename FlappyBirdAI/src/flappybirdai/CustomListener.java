@@ -1,15 +1,15 @@
 package flappybirdai;
 
-import static flappybirdai.FlappyBirdAI.speedUp;
+import static flappybirdai.FlappyBirdAI.speed;
 
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 
-//Ekrana tıklayınca hızın değişmesini sağlayan kod bloğu
+//Ekrana tıklayınca hızı 1x, 2x, 10x ve sınırsız arasında değiştiren kod bloğu
 public class CustomListener implements MouseListener{
 
       public void mouseClicked(MouseEvent e) {
-          speedUp = !speedUp;       //FlappyBirdAI sınıfında bulunan global değişken
+          speed = speed.next();     //FlappyBirdAI sınıfında bulunan global değişken
       }
 
       public void mousePressed(MouseEvent e) {
@@ -0,0 +1,132 @@
+package flappybirdai;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/*
+Scores every genome on several independent tube courses at once. Each course is
+its own Game with its own random stream (Streams.course) and bird states, so
+courses run in parallel without sharing mutable state, and the result does not
+depend on which course finishes first. The per-course fitnesses are combined
+into Genome.fitness, so one lucky course no longer decides the ranking.
+
+Her genomu aynı anda birden fazla bağımsız boru parkurunda puanlar. Her parkur
+kendi akışı (Streams.course) ve kuş durumlarıyla ayrı bir Game'dir; parkurlar paylaşılan
+durum olmadan paralel çalışır. Parkur uygunlukları Genome.fitness'ta birleştirilir.
+*/
+public class FitnessEvaluator {
+
+    //Parkur uygunluklarının birleştirilme şekli
+    public enum Aggregate {
+        MEAN,   //Ortalama uygunluk
+        MIN     //En kötü parkurdaki uygunluk
+    }
+
+    private final int episodes;             //Genom başına parkur sayısı
+    private final int maxTicks;             //Bir parkurun en fazla adım sayısı
+    private final Aggregate aggregate;
+    private final ExecutorService executor;
+    private final ParallelEvaluator evaluator;
+
+    public FitnessEvaluator(final int episodes, final int maxTicks,
+            final Aggregate aggregate, final ExecutorService executor,
+            final ParallelEvaluator evaluator) {
+        if (episodes < 1)
+            throw new IllegalArgumentException("episodes < 1");
+        if (maxTicks < 1)
+            throw new IllegalArgumentException("maxTicks < 1");
+        this.episodes = episodes;
+        this.maxTicks = maxTicks;
+        this.aggregate = aggregate;
+        this.executor = executor;
+        this.evaluator = evaluator;
+    }
+
+    /*
+    Havuzdaki bütün genomları değerlendirir, uygunluklarını ve havuzun maxFitness
+    değerini günceller. Oynanan toplam adım sayısını döndürür.
+    */
+    public long evaluate(final Pool pool) {
+        //Ağlar görevler başlamadan önce bir kez derlenir, görevler sadece okur
+        final List<Genome> genomes = new ArrayList<Genome>();
+        for (final Species species : pool.species)
+            for (final Genome genome : species.genomes) {
+                genome.generateNetwork();
+                genomes.add(genome);
+            }
+
+        //Parkurlar tohumdan, jenerasyondan ve parkur numarasından türetilir
+        final List<Callable<double[]>> courses = new ArrayList<Callable<double[]>>();
+        final long[] ticks = new long[episodes];
+        final Profiler[] profilers = new Profiler[episodes];
+        for (int e = 0; e < episodes; ++e) {
+            final int index = e;
+            courses.add(new Callable<double[]>() {
+
+                @Override
+                public double[] call() {
+                    final Game game = new Game(pool,
+                            pool.streams.course(pool.generation, index));
+                    game.setEvaluator(evaluator);
+                    game.reset();
+                    ticks[index] = play(game);
+                    profilers[index] = game.profiler;
+
+                    return Arrays.copyOf(game.fitness, game.count);
+                }
+            });
+        }
+
+        final double[][] results = new double[episodes][];
+        try {
+            final List<Future<double[]>> futures = executor.invokeAll(courses);
+            for (int e = 0; e < episodes; ++e)
+                results[e] = futures.get(e).get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Fitness evaluation interrupted", e);
+        } catch (final ExecutionException e) {
+            throw new IllegalStateException("Fitness evaluation failed", e.getCause());
+        }
+
+        //Parkurların ölçümleri görevler bittikten sonra havuzunkine eklenir
+        if (pool.profiler != null)
+            for (final Profiler profiler : profilers)
+                pool.profiler.add(profiler);
+
+        //Parkur uygunluklarını genomlara yazar
+        for (int i = 0; i < genomes.size(); ++i) {
+            double sum = 0.0;
+            double min = Double.POSITIVE_INFINITY;
+            for (int e = 0; e < episodes; ++e) {
+                sum += results[e][i];
+                min = Math.min(min, results[e][i]);
+            }
+            final Genome genome = genomes.get(i);
+            genome.fitness = aggregate == Aggregate.MIN ? min : sum / episodes;
+            if (genome.fitness > pool.maxFitness)
+                pool.maxFitness = genome.fitness;
+        }
+
+        long total = 0;
+        for (final long t : ticks)
+            total += t;
+        return total;
+    }
+
+    //Bütün kuşlar ölene ya da parkurun veya jenerasyonun adım sınırına ulaşılana kadar oynatır
+    private int play(final Game game) {
+        boolean done = false;
+        while (!done && game.ticks < maxTicks) {
+            game.eval();
+            game.update();
+            done = game.learn();
+        }
+        return game.ticks;
+    }
+}
@@ -1,171 +1,115 @@
 package flappybirdai;
 
-import static flappybirdai.Pool.POPULATION;
-
-
+import java.awt.Canvas;
 import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Font;
-import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.Image;
-import java.awt.Polygon;
 import java.awt.RenderingHints;
-import java.awt.Shape;
-import java.awt.geom.AffineTransform;
-import java.awt.geom.GeneralPath;
-import java.awt.geom.Rectangle2D;
+import java.awt.Toolkit;
+import java.awt.Transparency;
+import java.awt.image.BufferStrategy;
 import java.awt.image.BufferedImage;
-import java.io.File;
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Random;
-import java.util.WeakHashMap;
-import javax.imageio.ImageIO;
+import java.util.concurrent.locks.LockSupport;
 import javax.swing.JFrame;
-import javax.swing.JPanel;
 
 /** 
   Oyun başında kuşların popülasyonu 50 ile başlatılır.
   Oyun, kuşları boru konumuna göre girdi kuş pozisyonuna bakarak değerlendirir ve daha sonra
   kuşun çıktı sonucu zıplamasını ve koordinatları güncelleyip güncellememesini kontrol ederek
   güncelleme yapar ve daha sonra popülasyonun en iyi kuşunu bularak öğrenir 
+
+  Simülasyon kendi iş parçacığında seçilen hızın sabit adımıyla çalışır ve
+  değişmez Snapshot kareleri yayınlar. Çizim ayrı bir iş parçacığında, bir
+  BufferStrategy ile ve saniyede en fazla TARGET_FPS kare olacak şekilde yapılır.
+  Görüntüler ilk çizimde sınıf yolundan yüklenir (Assets); ölçeklenmiş
+  görüntüler, yazı tipleri ve döndürülmüş kuş kareleri önbellekte tutulur;
+  büyük popülasyonlarda yaşayan kuşların sadece bir örneği çizilir. Eğitim JMX'te
+  flappybirdai:type=Training olarak da izlenip kontrol edilebilir (Training).
  */
-public class FlappyBirdAI extends JPanel implements Runnable{
+public class FlappyBirdAI extends Canvas implements Runnable{
     
-    public static final Random rnd = new Random();
-
     //Ekran ölçüleri
-    private static final int WIDTH = 576;           
-    private static final int HEIGHT = 768;   
+    private static final int WIDTH = Game.WIDTH;
+    private static final int HEIGHT = Game.HEIGHT;
 
     //Kuş ölçüleri
-    private static final int BIRD_WIDTH = 72;       
-    private static final int BIRD_HEIGHT = 52;
-    
+    private static final int BIRD_WIDTH = Game.BIRD_WIDTH;
+    private static final int BIRD_HEIGHT = Game.BIRD_HEIGHT;
+
     //Taban ölçüleri
-    private static final int FLOOR_WIDTH = 672;
-    private static final int FLOOR_HEIGHT = 224;
-    private static final int FLOOR_OFFSET = 96;
-    private static final int FLOOR_SPEED = 5;
-    
+    static final int FLOOR_WIDTH = 672;
+    static final int FLOOR_HEIGHT = 224;
+    private static final int FLOOR_OFFSET = Game.FLOOR_OFFSET;
+    private static final int FLOOR_SPEED = Game.FLOOR_SPEED;
+
     //Boru ölçüleri
-    private static final int TUBE_WIDTH = 104;
-    private static final int TUBE_HEIGHT = 640;
-    private static final int TUBE_APERTURE = 250;
-
-    //Kullanılacak sprite nesneleri
-    private static BufferedImage   BACK_IMAGE;
-    private static BufferedImage[] BIRD_IMAGES;
-    private static BufferedImage   GROUND_IMAGE;
-    private static BufferedImage   TUBE1_IMAGE;
-    private static BufferedImage   TUBE2_IMAGE;
-    
-    //Oyun hızının değişmesi
-    public static boolean speedUp;
+    private static final int TUBE_WIDTH = Game.TUBE_WIDTH;
+    private static final int TUBE_HEIGHT = Game.TUBE_HEIGHT;
+    private static final int TUBE_APERTURE = Game.TUBE_APERTURE;
+
+    //Çizim sınırları
+    private static final int TARGET_FPS = 60;          //Saniyedeki en fazla kare
+    private static final int MAX_LAG = 5;              //Simülasyonun en fazla kaç adım geriden yetişmeye çalışacağı
+    private static final int MAX_DRAWN = 256;          //Bir karede çizilen en fazla kuş
+    private static final int ANGLE_STEP = 6;           //Döndürülmüş karelerin açı adımı (derece)
+    private static final int SPRITE_SPECIES = 32;      //Kareleri önbellekte tutulan en fazla tür
+    private static final int SPRITE_SIZE = 90;         //Döndürülmüş karenin kenarı, kuşun köşegeninden büyük
+
+    //Yazı tipleri
+    static final Font TEXT_FONT = new Font("TimesRoman", Font.BOLD, 18);
+    private static final Font SCORE_FONT = new Font("TimesRoman", Font.BOLD, 28);
+
+    //Oyun hızı; CustomListener her tıklamada sonrakine geçer
+    public static volatile Speed speed = Speed.NORMAL;
     
-    //kuş classı
-    private static class Bird { 
-        //Türleri bir anahtar olarak bağlayan Hashmap
-        private static Map<Species, BufferedImage[]> cache = new WeakHashMap<Species, BufferedImage[]>();
-
-        //Kuşun görüntüsü ve renk değişlenleri
-        private static BufferedImage colorBird(final BufferedImage refImage,
-                final Color color) {
-            
-            final BufferedImage image = new BufferedImage(BIRD_WIDTH,
-                    BIRD_HEIGHT, BufferedImage.TYPE_INT_ARGB);
-            
-            final Color bright = color.brighter().brighter();
-            final Color dark = color.darker().darker();
-            
-            for (int y = 0; y < BIRD_HEIGHT; ++y){
-                for (int x = 0; x < BIRD_WIDTH; ++x) {
-                    int argb = refImage.getRGB(x, y);
-                    if (argb == 0xffe0802c)
-                        argb = dark.getRGB();
-                    else if (argb == 0xfffad78c)
-                        argb = bright.getRGB();
-                    else if (argb == 0xfff8b733)
-                        argb = color.getRGB();
-                    image.setRGB(x, y, argb);
-                }
-            }            
-            return image;
-        }
-    
-        //Her kuş için kullanılacak görüntü dizisi
-        private BufferedImage[] images;
-        
-        private final Genome genome;    //Kuşun yapay sinir ağı
-        private double height;          //kuş ne kadar yükseklikte
-        private double velocity;        //kuşun dikeydeki hızı
-        private double angle;           //Kuşun açısı
-        private boolean flap;           //Zıplama durumu
-        private int flaps;              //Zıplama sayısı
-        private boolean dead;           //Kuşun yaşayıp yaşamama durumu
-
-        //Constructor. Türler ve Sinir Ağını parametre olarak alıyor
-        private Bird(final Species species, final Genome genome) {
-            if (cache.containsKey(species))
-                images = cache.get(species);
-            else {
-                final Color color = new Color(rnd.nextInt(0x1000000));
-                images = new BufferedImage[3];
-                for (int i = 0; i < 3; ++i)
-                    images[i] = colorBird(BIRD_IMAGES[i], color);
-                cache.put(species, images);
-            }
+    //Bir türün renklendirilmiş kareleri ve açıya göre döndürülmüş halleri [kare][açı]
+    private static final class Sprites {
+        final BufferedImage[] frames;
+        final Image[][] rotated = new Image[3][180 / ANGLE_STEP + 1];
 
-            this.genome = genome;   
-            height = HEIGHT / 2.0; 
+        Sprites(final BufferedImage[] frames) {
+            this.frames = frames;
         }
     }
 
-    private static class Tube {
-        
-        //Borunun koordinatları
-        private final double height;        
-        private double position;
-        //Kuşun tüpü geçip geçmediğini belirler
-        private boolean passed;
-
-        //Boru oluştuktan sonra ekranın sağında konumlanır
-        private Tube(final int height) {
-            this.height = height;
-            position = WIDTH;
-            passed = false;
+    //Species.id ile bağlanan kareler; en uzun süre kullanılmayan tür atılır
+    private static final Map<Integer, Sprites> sprites = new LinkedHashMap<Integer, Sprites>(
+            16, 0.75f, true) {
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Integer, Sprites> eldest) {
+            return size() > SPRITE_SPECIES;
         }
-    }
-   
-
-    private static final int[]   XS     = new int[] { 2, 6, 14, 18, 26, 50, 54,
-            58, 62, 66, 70, 70, 66, 62, 42, 22, 14, 10, 6, 2 };
-    private static final int[]   YS     = new int[] { -34, -38, -42, -46, -50,
-            -50, -46, -42, -38, -26, -22, -18, -10, -6, -2, -2, -6, -10, -18,
-            -22 };
-    private static final Polygon BOUNDS = new Polygon(XS, YS, XS.length);
-
-    //Oyun için kullanılan görüntüleri okur
-    static {
-        try {
-            BACK_IMAGE = upscale(ImageIO.read(new File("bg.png")));
-            GROUND_IMAGE = upscale(ImageIO.read(new File("brick.png")));
-            final BufferedImage birdImage = ImageIO.read(new File("bird.png"));
-            
-            //Kuşa kanat çırpma animasyonu verilmesi
-            BIRD_IMAGES = new BufferedImage[] {
-                    upscale(birdImage.getSubimage(0, 0, 36, 26)),
-                    upscale(birdImage.getSubimage(36, 0, 36, 26)),
-                    upscale(birdImage.getSubimage(72, 0, 36, 26)) };
-            
-            TUBE1_IMAGE = upscale(ImageIO.read(new File("tube1.png")));
-            TUBE2_IMAGE = upscale(ImageIO.read(new File("tube2.png")));
-        } catch (final Exception e) {
-            e.printStackTrace();
+    };
+
+    //Kuşun verilen açıya döndürülmüş karesi; açı ANGLE_STEP adımlarına yuvarlanır
+    private static Image birdImage(final int species, final int frame,
+            final double angle) {
+        Sprites entry = sprites.get(species);
+        if (entry == null) {
+            entry = new Sprites(Assets.tint(species));
+            sprites.put(species, entry);
         }
+        final int step = (int) Math.round((angle + 90.0) / ANGLE_STEP);
+        Image image = entry.rotated[frame][step];
+        if (image == null) {
+            image = Assets.compatible(SPRITE_SIZE, SPRITE_SIZE,
+                    Transparency.TRANSLUCENT);
+            final Graphics2D g = (Graphics2D) image.getGraphics();
+            g.rotate(-(step * ANGLE_STEP - 90) / 180.0 * Math.PI,
+                    SPRITE_SIZE / 2, SPRITE_SIZE / 2);
+            g.drawImage(entry.frames[frame], (SPRITE_SIZE - BIRD_WIDTH) / 2,
+                    (SPRITE_SIZE - BIRD_HEIGHT) / 2, null);
+            g.dispose();
+            entry.rotated[frame][step] = image;
+        }
+        return image;
     }
 
     //Çarpışma için kullanılacak sınırları alır
@@ -179,301 +123,194 @@ public class FlappyBirdAI extends JPanel implements Runnable{
         return new Dimension(width, height);
     }
 
+    /*
+    java flappybirdai.FlappyBirdAI [--seed S] [--generation-ticks N] [--generation-time MS]
+    Tohum verilmezse rastgele seçilir. Jenerasyon sınırları HeadlessTrainer'daki
+    gibidir; adım sınırı varsayılan olarak 10000, süre sınırı kapalıdır.
+    */
     public static void main(final String[] args) {
+        final Config config = new Config();
+        Long seed = null;
+        for (int i = 0; i < args.length; ++i) {
+            final String arg = args[i];
+            if (i + 1 >= args.length)
+                usage("Eksik değer: " + arg);
+            final String value = args[++i];
+            try {
+                if (arg.equals("--seed"))
+                    seed = Long.parseLong(value);
+                else if (arg.equals("--generation-ticks"))
+                    config.generationTicks = Integer.parseInt(value);
+                else if (arg.equals("--generation-time"))
+                    config.generationMillis = Long.parseLong(value);
+                else
+                    usage("Bilinmeyen seçenek: " + arg);
+            } catch (final NumberFormatException e) {
+                usage("Geçersiz sayı: " + value);
+            }
+        }
+        if (config.generationTicks < 0 || config.generationMillis < 0)
+            usage("Jenerasyon sınırları negatif olamaz");
+        if (seed == null)
+            seed = Streams.randomSeed();
+        System.out.println("Seed: " + seed);
+
         final JFrame frame = new JFrame();
-        frame.addMouseListener(new CustomListener());
         frame.setResizable(false);
         frame.setTitle("Flappy Bird AI");
         frame.setPreferredSize(new Dimension(WIDTH, HEIGHT));
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        final FlappyBirdAI ai = new FlappyBirdAI();
+        final FlappyBirdAI ai = new FlappyBirdAI(config, seed);
+        //Tuval pencerenin içini kapladığı için fare olayları tuvale gelir
+        ai.addMouseListener(new CustomListener());
+        ai.setIgnoreRepaint(true);
         frame.add(ai);
         frame.pack();
         frame.setLocationRelativeTo(null);
         frame.setVisible(true);
+        ai.createBufferStrategy(2);
         ai.run();
     }
 
-    //Önbelleğe alınmış görüntüyü, görüntüye uygular
-    private static BufferedImage toBufferedImage(final Image image) {
-        final BufferedImage buffered = new BufferedImage(image.getWidth(null),
-                image.getHeight(null), BufferedImage.TYPE_INT_ARGB);
-        buffered.getGraphics().drawImage(image, 0, 0, null);
-        return buffered;
-    }
-
-    //Resmi ölçeklendirir
-    private static BufferedImage upscale(final Image image) {
-        return toBufferedImage(image.getScaledInstance(image.getWidth(null) * 2,
-                image.getHeight(null) * 2, Image.SCALE_FAST));
+    private static void usage(final String message) {
+        System.err.println(message);
+        System.err.println("Kullanım: FlappyBirdAI [--seed S]"
+                + " [--generation-ticks N] [--generation-time MS]");
+        System.exit(1);
     }
 
-    private int speed;          
-    private int ticks;           
-    private int ticksTubes;     
+    //Eğitilen popülasyon ve çizilen oyunun simülasyonu; sadece simülasyon iş parçacığı dokunur
+    private final Pool pool;
+    private final Game game;
 
-    private final List<Bird> birds = new ArrayList<Bird>(); 
-    private final List<Tube> tubes = new ArrayList<Tube>(); 
+    //Bütün rastgele sayılar tohumdan türetilir (Streams)
+    public FlappyBirdAI(final long seed) {
+        this(new Config(), seed);
+    }
 
-    private Bird best;      //Her popülasyonun en iyi kuşu
-    private int  score;     //Kuş kaç boruyu geçti
+    public FlappyBirdAI(final Config config, final long seed) {
+        pool = new Pool(config, new Streams(seed));
+        game = new Game(pool);
+    }
 
-    //Boru konumuna göre kuş pozisyonunda gevşeterek giriş nöronları için girişleri hazırlar
-    public void eval() {
-        
-        //Gelecek olan boru 
-        Tube nextTube = null;
-       
-        /*
-        Her tüpün en sağ pozisyonuna bakar ve ondan daha büyük olup olmadığını belirler: 
-        1/3 Ekran genişliği + kuşun ortası. Temelde, kuşun henüz geçmediği en yakın 
-        tüpü bulur ve bunu 'nextTube' olarak ayarlar.
-        */
-        for (final Tube tube : tubes)
-            if (tube.position + TUBE_WIDTH > WIDTH / 3 - BIRD_WIDTH / 2
-                    && (nextTube == null || tube.position < nextTube.position))
-                nextTube = tube;
-        
-        //Her kuşa bakar. Ölü değilse, 4 giriş nöronunun her biri için uygun girdileri verecektir.
-        for (final Bird bird : birds) {
-            if (bird.dead)
-                continue;
-
-            //Giriş nöronları için kullanılacak 4 double dizisi
-            final double[] input = new double[4];
-            //İlk girdi, kuşun geçerli yüksekliğine göre belirlendi
-            input[0] = bird.height / HEIGHT;
-            
-            //Görünürde boru yoksa, giriş değerlerini varsayılan değerlere ayarla
-            if (nextTube == null) {
-                input[1] = 0.5;
-                input[2] = 1.0;
-            } 
-            // Aksi takdirde, giriş değerlerini sonraki borunun koordinatlarına ayarlayın
-            else {
-                input[1] = nextTube.height / HEIGHT;
-                input[2] = nextTube.position / WIDTH;
-            }
-            //Dördüncü girdi, boru boşluğunu ifade eden 1.0'a ayarlanır.
-            input[3] = 1.0;
+    //JMX istatistikleri ve kontrolleri; hız tıklamayla paylaşılan 'speed' alanıdır
+    private final Training training = new Training(new Training.Host() {
 
-            //Eğer çıktı, 0.5'ten büyükse kuş zıplar
-            final double[] output = bird.genome.evaluateNetwork(input);
-            if (output[0] > 0.5)
-                bird.flap = true;
+        @Override
+        public int getTickRate() {
+            return speed.ticksPerSecond;
         }
-    }
 
-    //Oyunun başlangıç değerleri
-    public void initializeGame() {
-        speed = 75;
-        ticks = 0;
-        ticksTubes = 0;
-        best = null;
-        score = 0;
-
-        //Türün genomunda belirlenen parametrelere dayanarak yeni bir kuş havuzu yapar
-        birds.clear();
-        for (final Species species : Pool.species)
-            for (final Genome genome : species.genomes) {
-                genome.generateNetwork();
-                birds.add(new Bird(species, genome));
-            }
-        tubes.clear();
-    }
+        @Override
+        public void setTickRate(final int ticksPerSecond) {
+            for (final Speed s : Speed.values())
+                if (s.ticksPerSecond == ticksPerSecond) {
+                    speed = s;
+                    return;
+                }
+            throw new IllegalArgumentException("Supported tick rates: 50, 100, 500, 0");
+        }
 
-    //Uygunluğu mevcut 'maxFitness'tan büyükse, gruptaki en iyi kuşu bulur
-    public void learn() {
-        best = birds.get(0);
-        boolean allDead = true;
-        for (final Bird bird : birds) {
-            if (bird.dead)
-                continue;
-            allDead = false;
-
-            double fitness = ticks - bird.flaps * 1.5;
-            fitness = fitness == 0.0 ? -1.0 : fitness;
-
-            //Kuşlar hayattayken uygunluklarını güncelle
-            bird.genome.fitness = fitness;
-            if (fitness > Pool.maxFitness)
-                Pool.maxFitness = fitness;
-
-            //En iyi kuşun uyugunluğu oyun ilerledikçe güncellenir
-            if (fitness > best.genome.fitness)
-                best = bird;
+        @Override
+        public void checkpoint(final Path file) throws IOException {
+            Checkpoint.write(file, Checkpoint.encode(pool));
         }
 
-        //Bütün kuşlar öldüyse, yeni bir jenerasyon başlat ve seviyeyi yeniden başlat
-        if (allDead) {
-            Pool.newGeneration();
-            initializeGame();
+        //Havuzdaki en yüksek uygunluklu genom; uygunluklar oyun sırasında güncellenir
+        @Override
+        public Genome champion() {
+            Genome champion = null;
+            for (final Species species : pool.species)
+                for (final Genome genome : species.genomes)
+                    if (champion == null || genome.fitness > champion.fitness)
+                        champion = genome;
+            return champion == null ? null : champion.copy(pool);
         }
+    });
+
+    //Simülasyonun yayınladığı son kare
+    private volatile Snapshot snapshot;
+
+    //Bir kare çizer; çizim yüzeyi kaybolursa kareyi yeniden çizer
+    private void render(final Snapshot frame) {
+        final BufferStrategy strategy = getBufferStrategy();
+        do {
+            do {
+                final Graphics2D g2d = (Graphics2D) strategy.getDrawGraphics();
+                try {
+                    draw(g2d, frame);
+                } finally {
+                    g2d.dispose();
+                }
+            } while (strategy.contentsRestored());
+            strategy.show();
+        } while (strategy.contentsLost());
+        Toolkit.getDefaultToolkit().sync();
     }
 
     //Çizim işlemleri
-    @Override
-    public void paint(final Graphics g_) {
-        final Graphics2D g2d = (Graphics2D) g_;
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
-                RenderingHints.VALUE_ANTIALIAS_ON);
-
-        g2d.drawImage(BACK_IMAGE, 0, 0, WIDTH, HEIGHT, null);
-
-        
-        
-        try {
-            for (final Tube tube : tubes) {
-            g2d.drawImage(TUBE1_IMAGE, (int) tube.position,
-                    HEIGHT - (int) tube.height - TUBE_APERTURE - TUBE_HEIGHT,
-                    TUBE_WIDTH, TUBE_HEIGHT, null);
-            g2d.drawImage(TUBE2_IMAGE, (int) tube.position,
-                    HEIGHT - (int) tube.height, TUBE_WIDTH, TUBE_HEIGHT, null);
+    static void draw(final Graphics2D g2d, final Snapshot frame) {
+        g2d.drawImage(Assets.BACKGROUND, 0, 0, null);
+
+        for (int i = 0; i < frame.tubes; ++i) {
+            g2d.drawImage(Assets.TUBE1, (int) frame.tubePosition[i],
+                    HEIGHT - (int) frame.tubeHeight[i] - TUBE_APERTURE - TUBE_HEIGHT,
+                    null);
+            g2d.drawImage(Assets.TUBE2, (int) frame.tubePosition[i],
+                    HEIGHT - (int) frame.tubeHeight[i], null);
         }
-        } catch (Exception e) {
-            System.out.println("Boru çizimi sırasında bir hata alındı.");
-        }
-    
 
-        g2d.drawImage(GROUND_IMAGE,
-                -(FLOOR_SPEED * ticks % (WIDTH - FLOOR_WIDTH)),
-                HEIGHT - FLOOR_OFFSET, FLOOR_WIDTH, FLOOR_HEIGHT, null);
+        g2d.drawImage(Assets.GROUND,
+                -(FLOOR_SPEED * frame.ticks % (WIDTH - FLOOR_WIDTH)),
+                HEIGHT - FLOOR_OFFSET, null);
+        g2d.drawImage(Assets.HINT, 0, HEIGHT - FLOOR_OFFSET, null);
 
-        int alive = 0;
-        final int anim = ticks / 3 % 3;
+        final int anim = frame.ticks / 3 % 3;
         
-        //Her kuş için eğer yaşıyorsa yaşayan kuş sayısını arttır
-        for (final Bird bird : birds) {
-            if (bird.dead)
-                continue;
-            ++alive;
-            
-            //Kuş hareket ettikçe dönmesini sağlar
-            final AffineTransform at = new AffineTransform();
-            at.translate(WIDTH / 3 - BIRD_HEIGHT / 3, HEIGHT - bird.height);
-            at.rotate(-bird.angle / 180.0 * Math.PI, BIRD_WIDTH / 2,
-                    BIRD_HEIGHT / 2);
-            //Kuşları çizer
-            g2d.drawImage(bird.images[anim], at, null);
-        }
+        //Kuşlar döndürülmüş karelerle çizilir
+        for (int j = 0; j < frame.birds; ++j)
+            g2d.drawImage(birdImage(frame.species[j], anim, frame.angle[j]),
+                    WIDTH / 3 - BIRD_HEIGHT / 3 + (BIRD_WIDTH - SPRITE_SIZE) / 2,
+                    HEIGHT - (int) frame.height[j] + (BIRD_HEIGHT - SPRITE_SIZE) / 2,
+                    null);
         
-    
-        //Geçiş hızı
+        g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+                RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
         g2d.setColor(Color.BLACK);
-        Font trb = new Font("TimesRoman", Font.BOLD, 18);
-        g2d.setFont(trb);
-        g2d.drawString("Hızı Ayarlamak İçin Tıklayın", 160, 700);
+        g2d.setFont(TEXT_FONT);
         
         //Yaşayan kuş sayısını, belirtilen koordinata çiz
-        g2d.drawString("" + alive +"/"+POPULATION + " alive", 470, 50);
+        g2d.drawString("" + frame.alive +"/"+frame.population + " alive", 470, 50);
         
-       
-        try {
         //Uygunluğu çiz
-        g2d.drawString("Fitness " + best.genome.fitness + "/" + Pool.maxFitness,
+        g2d.drawString("Fitness " + frame.fitness + "/" + frame.maxFitness,
                 10, 50);
-        } catch (Exception e) {
-            System.out.println("Fitness çizilirken hata alındı");
-        }
         
         //Jenerasyonu çiz
-        g2d.drawString("Generation " + Pool.generation, 10, 80);
+        g2d.drawString("Generation " + frame.generation, 10, 80);
+
+        //Hızı çiz
+        g2d.drawString("Speed " + frame.speed.label, 10, 110);
         
         //Skoru çiz
         g2d.setColor(Color.WHITE);
-        trb = new Font("TimesRoman", Font.BOLD, 28);
-        g2d.setFont(trb);
-        g2d.drawString("" + score, WIDTH/2, 100);
+        g2d.setFont(SCORE_FONT);
+        g2d.drawString("" + frame.score, WIDTH/2, 100);
         
     }
-    
-    //Her kuşun zıplamasını ve konumunu günceller
-    public void update() {
-
-        ++ticks;
-        ++ticksTubes;
-
-        //TicksTubes hıza eşit olduğunda, rasgele yüksekliğe sahip yeni bir tüp ekleme zamanı gelmiştir. ticksTubes 0'a sıfırlandı
-        if (ticksTubes == speed) {
-            final int height = FLOOR_OFFSET + 100
-                    + rnd.nextInt(HEIGHT - 200 - TUBE_APERTURE - FLOOR_OFFSET);
-            tubes.add(new Tube(height));
-            ticksTubes = 0;
-        }
-
-        //Her bir boru boyunca tekrar eder ve ekrandan çıkıp çıkmadığını ve çıkarılması gerekip gerekmediğini belirler.
-        //Kuşun mevcut boruyu geçip geçmediğini belirler ve geçtiyse puanı artırır
-        final Iterator<Tube> it = tubes.iterator();
-        while (it.hasNext()) {
-            final Tube tube = it.next();
-            tube.position -= FLOOR_SPEED;
-            if (tube.position + TUBE_WIDTH < 0.0)
-                it.remove();
-            if (!tube.passed && tube.position + TUBE_WIDTH < WIDTH / 3
-                    - BIRD_WIDTH / 2) {
-                ++score;
-                if (score % 10 == 0) {
-                    speed -= 5;
-                    speed = Math.max(speed, 20);
-                }
-                tube.passed = true;
-            }
-        }
-
-        for (final Bird bird : birds) {
-            
-            //Kuş yandıysa bir sonraki kuşa git
-            if (bird.dead)
-                continue;
-
-            if (bird.flap) {
-                bird.velocity = 10;
-                bird.flap = false;
-                ++bird.flaps;
-            }
 
-            //Geçerli hızı ekleyerek yüksekliği ayarla
-            bird.height += bird.velocity;
-            //Hızı azalt
-            bird.velocity -= 0.98;            
-            //Açıyı 90 derecelik bir limite ayarla
-            bird.angle = 3.0 * bird.velocity;
-            bird.angle = Math.max(-90.0, Math.min(90.0, bird.angle));
-           
-            //Kuşun, ekranın üst sınırını aşmaması için gerekli işlemler
-            if (bird.height > HEIGHT) {
-                bird.height = HEIGHT;
-                bird.velocity = 0.0;
-                bird.angle = -bird.angle;
-            }
-
-            //Kuş yere çakıılrsa yansın
-            if (bird.height < FLOOR_OFFSET + BIRD_HEIGHT / 2)
-                bird.dead = true;
-
-            final AffineTransform at = new AffineTransform();
-            at.translate(WIDTH / 3 - BIRD_HEIGHT / 2, HEIGHT - bird.height);
-            at.rotate(-bird.angle / 180.0 * Math.PI, BIRD_WIDTH / 2,
-                    BIRD_HEIGHT / 2);
-            at.translate(0, 52);
-            final Shape bounds = new GeneralPath(BOUNDS)
-                    .createTransformedShape(at);
-            
-            //Üst ve alt tüpleri kontrol et, çarptıysa kuş yansın
-            for (final Tube tube : tubes) {
-                final Rectangle2D ceilTube = new Rectangle2D.Double(
-                        tube.position,
-                        HEIGHT - tube.height - TUBE_APERTURE - TUBE_HEIGHT,
-                        TUBE_WIDTH, TUBE_HEIGHT);
-                final Rectangle2D floorTube = new Rectangle2D.Double(
-                        tube.position, HEIGHT - tube.height, TUBE_WIDTH,
-                        TUBE_HEIGHT);
-                if (bounds.intersects(ceilTube)
-                        || bounds.intersects(floorTube)) {
-                    bird.dead = true;
-                    break;
-                }
+    //Yeni bir kare varsa çizer; saniyede en fazla TARGET_FPS kez
+    private void renderLoop() {
+        final long period = 1000000000L / TARGET_FPS;
+        Snapshot drawn = null;
+        while (true) {
+            final long start = System.nanoTime();
+            final Snapshot frame = snapshot;
+            if (frame != drawn) {
+                render(frame);
+                drawn = frame;
             }
+            LockSupport.parkNanos(period - (System.nanoTime() - start));
         }
     }
 
@@ -481,26 +318,52 @@ public class FlappyBirdAI extends JPanel implements Runnable{
     //Oyunu çalıştır
     public void run() {
         //Kuş popülasyonunun başlangıcı
-        Pool.initializePool();
+        pool.initializePool();
         //Oyunun başlangıcı
-        initializeGame();
-        
-        //Ana oyun döngüsü
-        while (true) {
+        game.initializeGame();
+        snapshot = new Snapshot(game, pool, speed, MAX_DRAWN);
+        training.register();
 
-            eval();
-            update();
-            learn();
+        final Thread renderer = new Thread(new Runnable() {
 
-            repaint();
-
-            //Mouse yardımıyla oyunun hızı ayarlanır
-            try {
-                if(!speedUp)
-                    Thread.sleep(20L);
-                else
-                    Thread.sleep(2L);
-            } catch (final InterruptedException e) {
+            @Override
+            public void run() {
+                renderLoop();
+            }
+        }, "render");
+        renderer.setDaemon(true);
+        renderer.start();
+
+        //Ana oyun döngüsü; sabit adımlı, kareler TARGET_FPS ile yayınlanır
+        final long frame = 1000000000L / TARGET_FPS;
+        long nextTick = System.nanoTime();
+        long nextFrame = nextTick;
+        long ticks = 0;
+        while (true) {
+            training.service();
+            final Speed speed = FlappyBirdAI.speed;
+            final long period = speed.period();
+            long now = System.nanoTime();
+            if (period > 0) {
+                if (now - nextTick < 0) {
+                    LockSupport.parkNanos(nextTick - now);
+                    continue;
+                }
+                //Çok geride kalınırsa yetişmeye çalışmak yerine saat kaydırılır
+                nextTick = now - nextTick > MAX_LAG * period ? now + period
+                        : nextTick + period;
+            } else
+                nextTick = now;
+
+            ++ticks;
+            if (game.tick())
+                training.publish(pool, game.alive(), ticks, true);
+
+            now = System.nanoTime();
+            if (now - nextFrame >= 0) {
+                snapshot = new Snapshot(game, pool, speed, MAX_DRAWN);
+                training.publish(pool, game.alive(), ticks, false);
+                nextFrame = now + frame;
             }
         }
     }
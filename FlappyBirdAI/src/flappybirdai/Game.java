@@ -0,0 +1,499 @@
+package flappybirdai;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/*
+The game simulation without any drawing. Moves the birds and tubes, feeds the
+networks and tracks fitness, so it can be driven by the window or headless.
+Bird state is kept in parallel primitive arrays indexed by bird, with a compact
+list of the living birds, and the tubes in a fixed ring, so a tick allocates
+nothing and dead birds cost nothing.
+
+A generation is bounded: it ends when every bird is dead, when
+Config.generationTicks (10000 by default) is reached, or in the live game when
+Config.generationMillis of simulation time is spent. Birds that stall (no new
+fitness high for Config.timeout ticks, off by default) are removed early and keep
+the fitness they had. In the live game a bird is also removed once it can no
+longer reach its species' topFitness within the tick budget and is certain to
+end in the half of its species that Pool.cullSpecies drops: fitness changes by
++1 or -0.5 per tick, so its best possible fitness is below the worst possible
+fitness of that many others. Such a bird is dropped before rankGlobally, so its
+cut-short fitness changes no rank, parent or species average. Fitness itself is
+unchanged, so generations played to the same tick budget stay comparable; a
+generation cut short by time does not count towards species staleness.
+
+Çizimden bağımsız oyun simülasyonu. Kuşları ve boruları hareket ettirir, sinir
+ağlarını besler ve uygunluğu takip eder; böylece pencere olmadan da çalıştırılabilir.
+Kuşların durumu kuş indeksine göre paralel ilkel dizilerde, borular sabit bir
+halkada tutulur; bir adım bellek ayırmaz ve ölü kuşlar hiç işlenmez.
+
+Bir jenerasyon sınırlıdır: bütün kuşlar öldüğünde, Config.generationTicks adıma
+(varsayılan 10000) ulaşıldığında ya da canlı oyunda Config.generationMillis kadar simülasyon süresi
+harcandığında biter. Takılan kuşlar (Config.timeout adım boyunca yeni bir en
+yüksek uygunluk yok, varsayılan olarak kapalı) erken çıkarılır ve o anki
+uygunluklarını korur. Canlı oyunda bir kuş, adım sınırı içinde türünün topFitness
+değerine yetişemeyecekse ve Pool.cullSpecies'in atacağı yarıda kalacağı kesinse
+de çıkarılır: uygunluk adım başına +1 ya da -0.5 değişir, kuşun ulaşabileceği en
+yüksek değer o kadar başka kuşun düşebileceği en düşük değerin altındadır. Böyle
+bir kuş rankGlobally'den önce atıldığı için kesilmiş uygunluğu hiçbir sırayı,
+ebeveyni ya da tür ortalamasını değiştirmez. Uygunluğun tanımı değişmez; aynı
+adım sınırıyla oynanan jenerasyonlar karşılaştırılabilir kalır, süre sınırında
+kesilen jenerasyon türlerin yıpranmasına sayılmaz.
+*/
+public class Game {
+
+    //Kuşların geldiği havuz
+    private final Pool pool;
+    //Bu oyunun boru yüksekliklerini üreten akış
+    private RandomGenerator course;
+    //Bağımsız parkurlarda uygunluk sadece kuşlara yazılır, genomlara ve havuza dokunulmaz
+    private final boolean episode;
+
+    //Uygunluğu genomlara yazan ve jenerasyonları ilerleten canlı oyun; parkur her jenerasyonda havuzun akışından alınır
+    public Game(final Pool pool) {
+        this(pool, null);
+    }
+
+    //course verilirse başka oyunlarla paylaşılan durum tutmayan ve o parkuru oynayan bağımsız bir oyun
+    Game(final Pool pool, final RandomGenerator course) {
+        this.pool = pool;
+        this.course = course;
+        episode = course != null;
+        //Bağımsız parkurlar başka iş parçacıklarında oynandığı için kendi ölçümlerini tutar
+        profiler = pool.profiler == null ? null
+                : episode ? new Profiler(false) : pool.profiler;
+    }
+
+    //Ekran ölçüleri
+    static final int WIDTH = 576;
+    static final int HEIGHT = 768;
+
+    //Kuş ölçüleri
+    static final int BIRD_WIDTH = 72;
+    static final int BIRD_HEIGHT = 52;
+
+    //Taban ölçüleri
+    static final int FLOOR_OFFSET = 96;
+    static final int FLOOR_SPEED = 5;
+
+    //Boru ölçüleri
+    static final int TUBE_WIDTH = 104;
+    static final int TUBE_HEIGHT = 640;
+    static final int TUBE_APERTURE = 250;
+
+    //Boru halkasının kapasitesi; en hızlı boru aralığında ekranda en fazla 7 boru bulunur
+    static final int TUBES = 16;
+
+    //Çarpışma sınırları; java.awt.Polygon ile aynı noktalar, Collision tarafından kullanılır
+    static final int[] XS = new int[] { 2, 6, 14, 18, 26, 50, 54,
+            58, 62, 66, 70, 70, 66, 62, 42, 22, 14, 10, 6, 2 };
+    static final int[] YS = new int[] { -34, -38, -42, -46, -50,
+            -50, -46, -42, -38, -26, -22, -18, -10, -6, -2, -2, -6, -10, -18,
+            -22 };
+
+    int speed;
+    int ticks;
+    int ticksTubes;
+
+    /*
+    Kuşların durumu, kuş indeksine göre paralel dizilerde tutulur. Diziler sadece
+    büyür; reset() ilk 'count' elemanı yeni popülasyonla doldurur.
+    */
+    int count;                                      //Kuş sayısı
+    Species[] species = new Species[0];             //Kuşun türü
+    Genome[] genomes = new Genome[0];               //Kuşun yapay sinir ağı
+    double[][] states = new double[0][];            //Kuşa ait nöron değerleri
+    double[] height = new double[0];                //kuş ne kadar yükseklikte
+    double[] velocity = new double[0];              //kuşun dikeydeki hızı
+    double[] angle = new double[0];                 //Kuşun açısı
+    boolean[] flap = new boolean[0];                //Zıplama durumu
+    int[] flaps = new int[0];                       //Zıplama sayısı
+    boolean[] dead = new boolean[0];                //Kuşun yaşayıp yaşamama durumu
+    double[] fitness = new double[0];               //Bu oyundaki uygunluk
+    double[] peak = new double[0];                  //Kuşun şimdiye kadarki en yüksek uygunluğu
+    int[] peakTick = new int[0];                    //En yüksek uygunluğa ulaştığı adım
+    private double[] bounds = new double[0];        //Bir türün kuşlarının en düşük olası son uygunlukları
+
+    //Yaşayan kuşların artan sıradaki indeksleri; ölen kuşlar update() sonunda çıkarılır
+    int[] living = new int[0];
+    int livingCount;
+
+    //Borular, en eskiden en yeniye bir halkada: i. boru (firstTube + i) & (TUBES - 1) konumundadır
+    final double[] tubeHeight = new double[TUBES];
+    final double[] tubePosition = new double[TUBES];
+    final boolean[] tubePassed = new boolean[TUBES];
+    int firstTube;
+    int tubeCount;
+
+    //Yaşayan kuşların ağlarını değerlendirir
+    private ParallelEvaluator evaluator = new ParallelEvaluator();
+    //Config.batch açıksa aynı topolojili ağları toplu değerlendirir
+    private BatchEvaluator batch;
+    //Kuş ile borular arasındaki çarpışma testi
+    private final Collision collision = new Collision(XS, YS);
+    //Aşama ölçümü; null ise kapalıdır
+    final Profiler profiler;
+
+    //Canlı oyunda jenerasyonun simülasyonuna harcanan süre (ns); bekleme ve duraklatma sayılmaz
+    private long busy;
+    private long tickStart;
+
+    int best;       //Her popülasyonun en iyi kuşunun indeksi
+    int score;      //Kuş kaç boruyu geçti
+
+    //Halkadaki i. borunun dizi indeksi
+    int tube(final int i) {
+        return (firstTube + i) & (TUBES - 1);
+    }
+
+    //Boru konumuna göre kuş pozisyonunda gevşeterek giriş nöronları için girişleri hazırlar
+    public void eval() {
+        final Profiler profiler = this.profiler;
+        if (profiler != null)
+            profiler.begin();
+        if (!episode && pool.config.generationMillis > 0)
+            tickStart = System.nanoTime();
+
+        //Gelecek olan boru
+        int nextTube = -1;
+
+        /*
+        Her tüpün en sağ pozisyonuna bakar ve ondan daha büyük olup olmadığını belirler:
+        1/3 Ekran genişliği + kuşun ortası. Temelde, kuşun henüz geçmediği en yakın
+        tüpü bulur ve bunu 'nextTube' olarak ayarlar.
+        */
+        for (int i = 0; i < tubeCount; ++i) {
+            final int t = tube(i);
+            if (tubePosition[t] + TUBE_WIDTH > WIDTH / 3 - BIRD_WIDTH / 2
+                    && (nextTube < 0 || tubePosition[t] < tubePosition[nextTube]))
+                nextTube = t;
+        }
+
+        //Görünürde boru yoksa, giriş değerlerini varsayılan değerlere ayarla
+        double tubeHeight = 0.5;
+        double tubePosition = 1.0;
+        // Aksi takdirde, giriş değerlerini sonraki borunun koordinatlarına ayarlayın
+        if (nextTube >= 0) {
+            tubeHeight = this.tubeHeight[nextTube] / HEIGHT;
+            tubePosition = this.tubePosition[nextTube] / WIDTH;
+        }
+
+        if (batch != null)
+            batch.evaluate(tubeHeight, tubePosition);
+        else
+            //Yaşayan her kuşun 4 giriş nöronu için uygun girdileri verecektir.
+            evaluator.evaluate(this, living, livingCount, tubeHeight, tubePosition);
+
+        if (profiler != null)
+            profiler.end(Profiler.Phase.EVAL);
+    }
+
+    /*
+    Tek bir kuşun ağını değerlendirir. 'input' dizisinin boru girdileri (1-3) önceden
+    doldurulmuş olmalıdır; ilk girdi kuşun yüksekliğinden hesaplanır.
+    */
+    void think(final int bird, final double[] input, final double[] output) {
+        //İlk girdi, kuşun geçerli yüksekliğine göre belirlendi
+        input[0] = height[bird] / HEIGHT;
+
+        //Eğer çıktı, 0.5'ten büyükse kuş zıplar
+        genomes[bird].network.evaluate(states[bird], input, output);
+        if (output[0] > 0.5)
+            flap[bird] = true;
+    }
+
+    //Değerlendirme için kullanılacak iş parçacığı havuzunu ayarlar
+    public void setEvaluator(final ParallelEvaluator evaluator) {
+        this.evaluator = evaluator;
+        batch = null;
+    }
+
+    //Ağları derler ve oyunu başlatır
+    public void initializeGame() {
+        for (final Species species : pool.species)
+            for (final Genome genome : species.genomes)
+                genome.generateNetwork();
+        reset();
+    }
+
+    //Oyunun başlangıç değerleri. Genomların ağları derlenmiş olmalıdır
+    void reset() {
+        speed = 75;
+        ticks = 0;
+        ticksTubes = 0;
+        busy = 0;
+        best = 0;
+        score = 0;
+
+        int count = 0;
+        for (final Species species : pool.species)
+            count += species.genomes.size();
+        if (count > height.length) {
+            species = new Species[count];
+            genomes = new Genome[count];
+            states = new double[count][];
+            height = new double[count];
+            velocity = new double[count];
+            angle = new double[count];
+            flap = new boolean[count];
+            flaps = new int[count];
+            dead = new boolean[count];
+            fitness = new double[count];
+            peak = new double[count];
+            peakTick = new int[count];
+            bounds = new double[count];
+            living = new int[count];
+        }
+
+        //Türün genomunda belirlenen parametrelere dayanarak yeni bir kuş havuzu yapar
+        int i = 0;
+        for (final Species species : pool.species)
+            for (final Genome genome : species.genomes) {
+                this.species[i] = species;
+                genomes[i] = genome;
+                states[i] = genome.network.newState();
+                height[i] = HEIGHT / 2.0;
+                velocity[i] = 0.0;
+                angle[i] = 0.0;
+                flap[i] = false;
+                flaps[i] = 0;
+                dead[i] = false;
+                fitness[i] = 0.0;
+                peak[i] = Double.NEGATIVE_INFINITY;
+                peakTick[i] = 0;
+                living[i] = i;
+                ++i;
+            }
+        this.count = count;
+        livingCount = count;
+        firstTube = 0;
+        tubeCount = 0;
+        //Canlı oyunun parkuru sadece tohuma ve jenerasyona bağlıdır, kayıttan aynen devam edilir
+        if (!episode)
+            course = pool.streams.course(pool.generation, 0);
+
+        if (pool.config.batch) {
+            if (batch == null)
+                batch = evaluator.newBatch();
+            batch.prepare(this);
+        } else
+            batch = null;
+    }
+
+    /*
+    Uygunluğu mevcut 'maxFitness'tan büyükse, gruptaki en iyi kuşu bulur. Takılan
+    ve umutsuz kuşları çıkarır. Bütün kuşlar öldüyse ya da jenerasyonun sınırı
+    dolduysa true döner.
+    */
+    public boolean learn() {
+        final Profiler profiler = this.profiler;
+        if (profiler != null)
+            profiler.begin();
+
+        final int timeout = pool.config.timeout;
+        final int budget = pool.config.generationTicks;
+        best = 0;
+        for (int k = 0; k < livingCount; ++k) {
+            final int i = living[k];
+
+            double fitness = ticks - flaps[i] * 1.5;
+            fitness = fitness == 0.0 ? -1.0 : fitness;
+
+            //Kuşlar hayattayken uygunluklarını güncelle
+            this.fitness[i] = fitness;
+            if (!episode) {
+                genomes[i].fitness = fitness;
+                if (fitness > pool.maxFitness)
+                    pool.maxFitness = fitness;
+            }
+
+            //En iyi kuşun uyugunluğu oyun ilerledikçe güncellenir
+            if (fitness > this.fitness[best])
+                best = i;
+
+            if (fitness > peak[i]) {
+                peak[i] = fitness;
+                peakTick[i] = ticks;
+            }
+        }
+
+        //Bağımsız parkurlarda ortalama başka parkurlardan yükselebileceği için bu eleme sadece canlı oyunda yapılır
+        if (!episode && budget > 0)
+            cullHopeless(budget - ticks);
+
+        //Takılan kuşlar ölür, uygunlukları o anki değerde kalır
+        int kept = 0;
+        for (int k = 0; k < livingCount; ++k) {
+            final int i = living[k];
+            if (dead[i] || (timeout > 0 && ticks - peakTick[i] >= timeout))
+                dead[i] = true;
+            else
+                living[kept++] = i;
+        }
+        livingCount = kept;
+
+        boolean done = livingCount == 0 || (budget > 0 && ticks >= budget);
+        //Süreyi aşan canlı jenerasyon kesilir; hayatta kalanların uygunluğu o ana kadar ölçülmüştür
+        final long millis = pool.config.generationMillis;
+        if (!episode && millis > 0) {
+            busy += System.nanoTime() - tickStart;
+            if (!done && busy >= millis * 1000000L) {
+                pool.truncated = true;
+                done = true;
+            }
+        }
+
+        if (profiler != null)
+            profiler.end(Profiler.Phase.LEARN);
+        return done;
+    }
+
+    /*
+    Kalan 'remaining' adımda türünün topFitness değerini geçemeyecek ve türünün
+    cullSpecies ile atılacak yarısında kalacağı kesin olan yaşayan kuşları öldürür.
+    Bir türün kuşları reset() sırasında ardışık indekslerdedir. Uygunluk adım başına
+    en fazla 1 artar ve en fazla 0.5 azalır; 0 yerine verilen -1 için bir birim pay
+    bırakılır.
+    */
+    private void cullHopeless(final int remaining) {
+        for (int from = 0; from < count;) {
+            final Species species = this.species[from];
+            int to = from + 1;
+            while (to < count && this.species[to] == species)
+                ++to;
+
+            //Sadece türün en iyisine yetişemeyecek bir kuş varsa sınır hesaplanır
+            boolean candidates = false;
+            for (int i = from; i < to && !candidates; ++i)
+                candidates = !dead[i]
+                        && fitness[i] + remaining + 1.0 < species.topFitness;
+
+            if (candidates) {
+                final int n = to - from;
+                for (int i = from; i < to; ++i)
+                    bounds[i - from] = dead[i] ? fitness[i]
+                            : fitness[i] - 0.5 * remaining - 1.0;
+                Arrays.sort(bounds, 0, n);
+                //cullSpecies en iyi ceil(n / 2) kuşu tutar; kesin olarak o kadar kuşun altında kalan atılır
+                final double kept = bounds[n - (n + 1) / 2];
+                for (int i = from; i < to; ++i) {
+                    final double most = fitness[i] + remaining + 1.0;
+                    if (!dead[i] && most < species.topFitness && most < kept)
+                        dead[i] = true;
+                }
+            }
+            from = to;
+        }
+    }
+
+    //Oyunu bir adım ilerletir. Jenerasyon bittiyse yeni bir jenerasyon başlatır ve true döner
+    public boolean tick() {
+        eval();
+        update();
+        if (!learn())
+            return false;
+
+        //Jenerasyon bittiyse, yeni bir jenerasyon başlat ve seviyeyi yeniden başlat
+        pool.newGeneration();
+        initializeGame();
+        return true;
+    }
+
+    //Yaşayan kuş sayısı
+    public int alive() {
+        return livingCount;
+    }
+
+    //Her kuşun zıplamasını ve konumunu günceller
+    public void update() {
+        final Profiler profiler = this.profiler;
+        if (profiler != null)
+            profiler.begin();
+
+        ++ticks;
+        ++ticksTubes;
+
+        //TicksTubes hıza eşit olduğunda, rasgele yüksekliğe sahip yeni bir tüp ekleme zamanı gelmiştir. ticksTubes 0'a sıfırlandı
+        if (ticksTubes == speed) {
+            final int height = FLOOR_OFFSET + 100
+                    + course.nextInt(HEIGHT - 200 - TUBE_APERTURE - FLOOR_OFFSET);
+            if (tubeCount == TUBES)
+                throw new IllegalStateException("Too many tubes on screen");
+            final int t = tube(tubeCount++);
+            tubeHeight[t] = height;
+            tubePosition[t] = WIDTH;
+            tubePassed[t] = false;
+            ticksTubes = 0;
+        }
+
+        //Kuşun mevcut boruyu geçip geçmediğini belirler ve geçtiyse puanı artırır
+        for (int i = 0; i < tubeCount; ++i) {
+            final int t = tube(i);
+            tubePosition[t] -= FLOOR_SPEED;
+            if (!tubePassed[t] && tubePosition[t] + TUBE_WIDTH < WIDTH / 3
+                    - BIRD_WIDTH / 2) {
+                ++score;
+                if (score % 10 == 0) {
+                    speed -= 5;
+                    speed = Math.max(speed, 20);
+                }
+                tubePassed[t] = true;
+            }
+        }
+        //Borular aynı hızla ilerler, ekrandan çıkan borular her zaman halkanın başındadır
+        while (tubeCount > 0 && tubePosition[firstTube] + TUBE_WIDTH < 0.0) {
+            firstTube = tube(1);
+            --tubeCount;
+        }
+        //Kuşların ulaşabileceği borular bu adım için bir kez seçilir
+        collision.prepare(this);
+
+        //Fizik adımı: sadece yaşayan kuşlar, dallanmasız ve ilkel dizilerle
+        final int[] living = this.living;
+        final double[] height = this.height;
+        final double[] velocity = this.velocity;
+        final double[] angle = this.angle;
+        final boolean[] flap = this.flap;
+        final int[] flaps = this.flaps;
+        final int n = livingCount;
+        for (int k = 0; k < n; ++k) {
+            final int i = living[k];
+            final boolean flapped = flap[i];
+            flap[i] = false;
+            flaps[i] += flapped ? 1 : 0;
+
+            //Geçerli hızı ekleyerek yüksekliği ayarla, sonra hızı azalt
+            double v = flapped ? 10.0 : velocity[i];
+            double h = height[i] + v;
+            v -= 0.98;
+            //Açıyı 90 derecelik bir limite ayarla
+            double a = Math.max(-90.0, Math.min(90.0, 3.0 * v));
+
+            //Kuşun, ekranın üst sınırını aşmaması için gerekli işlemler
+            final boolean top = h > HEIGHT;
+            h = top ? HEIGHT : h;
+            v = top ? 0.0 : v;
+            a = top ? -a : a;
+
+            height[i] = h;
+            velocity[i] = v;
+            angle[i] = a;
+        }
+
+        //Yere çakılan ya da üst ve alt tüplere çarpan kuşlar yanar ve listeden çıkarılır
+        int kept = 0;
+        for (int k = 0; k < n; ++k) {
+            final int i = living[k];
+            if (height[i] < FLOOR_OFFSET + BIRD_HEIGHT / 2
+                    || collision.hits(angle[i], height[i]))
+                dead[i] = true;
+            else
+                living[kept++] = i;
+        }
+        livingCount = kept;
+
+        if (profiler != null)
+            profiler.end(Profiler.Phase.UPDATE);
+    }
+}
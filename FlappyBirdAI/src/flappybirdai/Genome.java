@@ -1,32 +1,49 @@
 package flappybirdai;
 
+import static flappybirdai.Pool.INPUTS;
+import static flappybirdai.Pool.OUTPUTS;
+
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.random.RandomGenerator;
 
 /*
 The neural network of each bird. Describes the nodes of the bird and the links betwen them. 
-Can mutate the nodes using random numbers among the population.
+Can mutate the nodes using random numbers among the population. Every mutation
+draws from the stream it is given (Streams), never from a shared generator.
 
 Her kuşun arasındaki yapay sinir ağı. Kuşun düğümleri ve aralarındaki bağları açıklamaktadır.
-Popülasyon arasında rastgele sayılar kullanarak düğümleri değiştirebilir
+Popülasyon arasında rastgele sayılar kullanarak düğümleri değiştirebilir. Her
+mutasyon ortak bir üreteçten değil, kendisine verilen akıştan (Streams) çeker.
 */
-public class Genome extends Pool{
-    public final List<Synapse>  genes = new ArrayList<Synapse>();
+public class Genome {
+    public final Pool pool;             //Genomun ait olduğu havuz
+    public final List<Synapse>  genes = new ArrayList<Synapse>();     //Innovation numarasına göre sıralı
     public double fitness = 0.0;
     public int maxNeuron = 0;
     public int globalRank = 0;
-    public final double[] mutationRates = new double[] { CONN_MUTATION,
-            LINK_MUTATION, BIAS_MUTATION, NODE_MUTATION, ENABLE_MUTATION,
-            DISABLE_MUTATION, STEP_SIZE };
-    public Map<Integer, Neuron> network = null;
+    public final double[] mutationRates;
+    public Network network = null;
+    public double[] state = null;       //Ağın nöron değerleri
+    public int age = 0;                 //Hayatta kaldığı jenerasyon sayısı; kayıtlara yazılmaz
+
+    public Genome(final Pool pool) {
+        this.pool = pool;
+        final Config config = pool.config;
+        mutationRates = new double[] { config.connMutation,
+                config.linkMutation, config.biasMutation, config.nodeMutation,
+                config.enableMutation, config.disableMutation,
+                config.stepSize };
+    }
 
     @Override
     public Genome clone() {
-        final Genome genome = new Genome();
+        return copy(pool);
+    }
+
+    //Genomun başka bir havuza ait bir kopyasını döndürür
+    public Genome copy(final Pool pool) {
+        final Genome genome = new Genome(pool);
         for (final Synapse gene : genes)
             genome.genes.add(gene.clone());
         genome.maxNeuron = maxNeuron;
@@ -44,92 +61,56 @@ public class Genome extends Pool{
     }
 
 
-    //Ayrık nöronların sayısı
+    //Geni innovation sırasını bozmadan ekler
+    public void addGene(final Synapse gene) {
+        int low = 0;
+        int high = genes.size();
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (genes.get(middle).innovation <= gene.innovation)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        genes.add(low, gene);
+    }
+
+    //Ayrık nöronların sayısı. İki gen listesi de sıralı olduğundan tek geçişte birleştirilir
     public double disjoint(final Genome genome) {
+        final List<Synapse> other = genome.genes;
         double disjointGenes = 0.0;
-        search: for (final Synapse gene : genes) {
-            for (final Synapse otherGene : genome.genes)
-                if (gene.innovation == otherGene.innovation)
-                    continue search;
-            ++disjointGenes;
+        int j = 0;
+        for (final Synapse gene : genes) {
+            while (j < other.size() && other.get(j).innovation < gene.innovation)
+                ++j;
+            if (j == other.size() || other.get(j).innovation != gene.innovation)
+                ++disjointGenes;
         }
         return disjointGenes / Math.max(genes.size(), genome.genes.size());
     }
    
     //Kuşun zıplaması gerekip gerekmediğini belirleyen çıktıyı döndürür
     public double[] evaluateNetwork(final double[] input) {
-        
-        //Giriş sayısına kadar her girişin değerlerini getir (Burada 4)
-        for (int i = 0; i < INPUTS; ++i)
-            network.get(i).value = input[i];
-
-        
-        for (final Map.Entry<Integer, Neuron> entry : network.entrySet()) {
-            if (entry.getKey() < INPUTS + OUTPUTS)
-                continue;
-            final Neuron neuron = entry.getValue();
-            double sum = 0.0;
-            
-            //Synapse weight * input değerinin toplamlarının hesaplanması
-            for (final Synapse incoming : neuron.inputs) {
-                final Neuron other = network.get(incoming.input);
-                sum += incoming.weight * other.value;
-            }
-            
-            //Toplamın sigmoid'ini al
-            if (!neuron.inputs.isEmpty())
-                neuron.value = Neuron.sigmoid(sum);
-        }
-
-        for (final Map.Entry<Integer, Neuron> entry : network.entrySet()) {
-            if (entry.getKey() < INPUTS || entry.getKey() >= INPUTS + OUTPUTS)
-                continue;
-            final Neuron neuron = entry.getValue();
-            double sum = 0.0;
-            for (final Synapse incoming : neuron.inputs) {
-                final Neuron other = network.get(incoming.input);
-                sum += incoming.weight * other.value;
-            }
-
-            if (!neuron.inputs.isEmpty())
-                neuron.value = Neuron.sigmoid(sum);
-        }
-
         final double[] output = new double[OUTPUTS];
-        
-        //Her çıktıyı alır (Burada sadece 1-zıplama)
-        for (int i = 0; i < OUTPUTS; ++i)
-            output[i] = network.get(INPUTS + i).value;
+        evaluateNetwork(input, output);
         return output;
     }
 
-    public void generateNetwork() {
-        network = new HashMap<Integer, Neuron>();
-        for (int i = 0; i < INPUTS; ++i)
-            network.put(i, new Neuron());
-        for (int i = 0; i < OUTPUTS; ++i)
-            network.put(INPUTS + i, new Neuron());
-
-        Collections.sort(genes, new Comparator<Synapse>() {
+    //Çıktıyı verilen diziye yazar, bellek ayırmaz
+    public void evaluateNetwork(final double[] input, final double[] output) {
+        network.evaluate(state, input, output);
+    }
 
-            @Override
-            public int compare(final Synapse o1, final Synapse o2) {
-                return o1.output - o2.output;
-            }
-        });
-        for (final Synapse gene : genes)
-            if (gene.enabled) {
-                if (!network.containsKey(gene.output))
-                    network.put(gene.output, new Neuron());
-                final Neuron neuron = network.get(gene.output);
-                neuron.inputs.add(gene);
-                if (!network.containsKey(gene.input))
-                    network.put(gene.input, new Neuron());
-            }
+    //Aktif genleri düz dizilere derler
+    public void generateNetwork() {
+        network = new Network(genes, pool.config.activation);
+        if (pool.config.compile && age >= NetworkCompiler.MIN_AGE)
+            network.compile();
+        state = network.newState();
     }
 
     //Mutasyon
-    public void mutate() {
+    public void mutate(final RandomGenerator rnd) {
         
         //Gives each mutation rate a 50/50 chance of being 0.95 or 1.05263
         //Her mutasyona 0.95 - 1.05263 aralığında şans verir
@@ -137,45 +118,46 @@ public class Genome extends Pool{
             mutationRates[i] *= rnd.nextBoolean() ? 0.95 : 1.05263;
 
         if (rnd.nextDouble() < mutationRates[0])
-            mutatePoint();
+            mutatePoint(rnd);
 
         double prob = mutationRates[1];
         while (prob > 0) {
             if (rnd.nextDouble() < prob)
-                mutateLink(false);
+                mutateLink(false, rnd);
             --prob;
         }
 
         prob = mutationRates[2];
         while (prob > 0) {
             if (rnd.nextDouble() < prob)
-                mutateLink(true);
+                mutateLink(true, rnd);
             --prob;
         }
 
         prob = mutationRates[3];
         while (prob > 0) {
             if (rnd.nextDouble() < prob)
-                mutateNode();
+                mutateNode(rnd);
             --prob;
         }
 
         prob = mutationRates[4];
         while (prob > 0) {
             if (rnd.nextDouble() < prob)
-                mutateEnableDisable(true);
+                mutateEnableDisable(true, rnd);
             --prob;
         }
 
         prob = mutationRates[5];
         while (prob > 0) {
             if (rnd.nextDouble() < prob)
-                mutateEnableDisable(false);
+                mutateEnableDisable(false, rnd);
             --prob;
         }
     }
 
-    public void mutateEnableDisable(final boolean enable) {
+    public void mutateEnableDisable(final boolean enable,
+            final RandomGenerator rnd) {
         final List<Synapse> candidates = new ArrayList<Synapse>();
         for (final Synapse gene : genes)
             if (gene.enabled != enable)
@@ -189,12 +171,12 @@ public class Genome extends Pool{
     }
 
     //Farklı ağırlıklar arasında yeni bir bağlantı oluşturur
-    public void mutateLink(final boolean forceBias) {
+    public void mutateLink(final boolean forceBias, final RandomGenerator rnd) {
         
         //Chooses 2 random neurons
         //2 rastgele nöron seçer
-        final int neuron1 = randomNeuron(false, true);
-        final int neuron2 = randomNeuron(true, false);
+        final int neuron1 = randomNeuron(false, true, rnd);
+        final int neuron2 = randomNeuron(true, false, rnd);
 
         //Creates a link between the two neurons
         //2 nöron arasında bir bağlantı oluşturur
@@ -208,16 +190,17 @@ public class Genome extends Pool{
         if (containsLink(newLink))
             return;
 
-        newLink.innovation = ++Pool.innovation;
+        newLink.innovation = pool.innovations.innovation(newLink.input,
+                newLink.output, InnovationRegistry.LINK);
         newLink.weight = rnd.nextDouble() * 4.0 - 2.0;
 
         //Add the link to the gene
         //Gene bağlantı ekler
-        genes.add(newLink);
+        addGene(newLink);
     }
  
     //Düğüme mutasyon uygular (Evrim için)
-    public void mutateNode() {
+    public void mutateNode(final RandomGenerator rnd) {
         if (genes.isEmpty())
             return;
 
@@ -233,28 +216,31 @@ public class Genome extends Pool{
         final Synapse gene1 = gene.clone();
         gene1.output = maxNeuron;
         gene1.weight = 1.0;
-        gene1.innovation = ++Pool.innovation;
+        gene1.innovation = pool.innovations.innovation(gene1.input,
+                gene1.output, InnovationRegistry.NODE_IN);
         gene1.enabled = true;
-        genes.add(gene1);
+        addGene(gene1);
 
         final Synapse gene2 = gene.clone();
         gene2.input = maxNeuron;
-        gene2.innovation = ++Pool.innovation;
+        gene2.innovation = pool.innovations.innovation(gene2.input,
+                gene2.output, InnovationRegistry.NODE_OUT);
         gene2.enabled = true;
-        genes.add(gene2);
+        addGene(gene2);
     }
 
     //Her düğüm için rastgele ağırlıkları ayarlar
-    public void mutatePoint() {
+    public void mutatePoint(final RandomGenerator rnd) {
         for (final Synapse gene : genes)
-            if (rnd.nextDouble() < PERTURBATION)
+            if (rnd.nextDouble() < pool.config.perturbation)
                 gene.weight += rnd.nextDouble() * mutationRates[6] * 2.0
                         - mutationRates[6];
             else
                 gene.weight = rnd.nextDouble() * 4.0 - 2.0;
     }
 
-    public int randomNeuron(final boolean nonInput, final boolean nonOutput) {
+    public int randomNeuron(final boolean nonInput, final boolean nonOutput,
+            final RandomGenerator rnd) {
         final List<Integer> neurons = new ArrayList<Integer>();
 
         if (!nonInput)
@@ -278,21 +264,26 @@ public class Genome extends Pool{
     }
 
     public boolean sameSpecies(final Genome genome) {
-        final double dd = DELTA_DISJOINT * disjoint(genome);
-        final double dw = DELTA_WEIGHTS * weights(genome);
-        return dd + dw < DELTA_THRESHOLD;
+        final Config config = pool.config;
+        final double dd = config.deltaDisjoint * disjoint(genome);
+        final double dw = config.deltaWeights * weights(genome);
+        return dd + dw < config.deltaThreshold;
     }
 
+    //Ortak genlerin ağırlık farklarının ortalaması, sıralı listeler tek geçişte birleştirilir
     public double weights(final Genome genome) {
+        final List<Synapse> other = genome.genes;
         double sum = 0.0;
         double coincident = 0.0;
-        search: for (final Synapse gene : genes)
-            for (final Synapse otherGene : genome.genes)
-                if (gene.innovation == otherGene.innovation) {
-                    sum += Math.abs(gene.weight - otherGene.weight);
-                    ++coincident;
-                    continue search;
-                }
+        int j = 0;
+        for (final Synapse gene : genes) {
+            while (j < other.size() && other.get(j).innovation < gene.innovation)
+                ++j;
+            if (j < other.size() && other.get(j).innovation == gene.innovation) {
+                sum += Math.abs(gene.weight - other.get(j).weight);
+                ++coincident;
+            }
+        }
         return sum / coincident;
     }
 }
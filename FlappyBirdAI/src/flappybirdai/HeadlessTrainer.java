@@ -0,0 +1,410 @@
+package flappybirdai;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+Trains the population without a window. Steps the same game and generation loop
+as fast as the CPU allows and reports the throughput.
+
+Pencere olmadan popülasyonu eğitir. Aynı oyun ve jenerasyon döngüsünü işlemcinin
+izin verdiği hızda çalıştırır ve hızını raporlar.
+
+Kullanım: java -cp FlappyBirdAI.jar flappybirdai.HeadlessTrainer
+          [--population N] [--seed S] [--generations G] [--threads T]
+          [--episodes E] [--max-ticks M] [--aggregate mean|min]
+          [--generation-ticks N] [--generation-time MS] [--timeout N]
+          [--islands K] [--migration-interval I] [--migrants N]
+          [--checkpoint DOSYA] [--checkpoint-every C] [--resume DOSYA]
+          [--export DOSYA] [--inference scalar|batch|compiled]
+          [--activation exact|table|rational] [--profile summary|jfr]
+
+--episodes verilirse her genom E bağımsız parkurda paralel olarak puanlanır,
+her parkur en fazla M adım sürer. --generation-ticks her jenerasyonu ve parkuru
+en fazla N adımla sınırlar (varsayılan 10000, 0 sınırsız); --generation-time tek
+ortak parkurda bir jenerasyonun
+simülasyonunu MS milisaniyeyle sınırlar (Game). İkisi de kayıtlara yazılmaz,
+devam ederken yeniden verilmelidir. --timeout N adım boyunca uygunluk rekoru
+kırmayan kuşları çıkarır (varsayılan 0, kapalı). --islands verilirse K bağımsız havuz ayrı iş
+parçacıklarında evrilir ve her I jenerasyonda en iyi N genom komşu adaya göç eder.
+Bütün rastgele sayılar --seed'den türetilir (Streams); aynı tohum iş parçacığı
+sayısından bağımsız olarak aynı eğitimi verir. Tohum verilmezse rastgele seçilir
+ve yazdırılır.
+--checkpoint verilirse her C jenerasyonda havuz ve tohum DOSYA'ya
+arka planda kaydedilir. --resume ile kayıttan aynı şekilde devam edilir; ayarlar
+kayıttan okunur, --generations devam edilecek jenerasyon sayısıdır.
+Kayıt alma adalarla birlikte desteklenmez. --export verilirse eğitim boyunca
+görülen en iyi genom sonunda Controller'ın okuduğu biçimde DOSYA'ya yazılır.
+--inference batch aynı topolojili ağları birlikte değerlendirir; sadece birçok
+kuşun aynı topolojiyi paylaştığı ilk jenerasyonlarda hızlıdır, evrilmiş bir
+popülasyonda skaler değerlendirmeyle aynı hızdadır (InferenceBenchmark). Vektör
+çekirdeği için JVM --add-modules jdk.incubator.vector ile başlatılmalıdır. --inference
+compiled en az NetworkCompiler.MIN_AGE jenerasyon hayatta kalan genomların
+ağlarını gizli bir sınıf olarak bayt koduna derler. --activation
+Math.exp yerine tablo ya da rasyonel yaklaşım seçer (hata sınırları Activation'da).
+--profile her jenerasyonda aşamaların süresini ve ayırdığı belleği ölçer ve
+Flight Recorder olayı olarak kaydeder (Profiler); summary ayrıca her jenerasyonda
+bir özet satırı yazar.
+Tek havuzlu eğitim JMX'te flappybirdai:type=Training olarak yayınlanır (Training);
+jconsole ile izlenebilir, duraklatılabilir, adım sınırı verilebilir, kayıt ve
+şampiyon dosyası alınabilir.
+*/
+public class HeadlessTrainer {
+
+    private final Pool pool;
+    private final Game game;
+    private final FitnessEvaluator fitness;    //null ise tek ortak parkur oynanır
+    private CheckpointWriter checkpoints;   //null ise kayıt alınmaz
+    private Training training;              //JMX istatistikleri ve kontrolleri, null ise kapalı
+    private volatile int tickRate;          //Saniyedeki adım sınırı, 0 ise sınırsız
+    private Genome champion;                //Şimdiye kadarki en iyi genomun kopyası
+    private double championFitness = Double.NEGATIVE_INFINITY;
+
+    private long totalTicks;        //Toplam adım sayısı
+    private int generations;        //Tamamlanan jenerasyon sayısı
+
+    public HeadlessTrainer(final Pool pool, final ParallelEvaluator evaluator,
+            final FitnessEvaluator fitness) {
+        this.pool = pool;
+        game = new Game(pool);
+        game.setEvaluator(evaluator);
+        this.fitness = fitness;
+    }
+
+    public Pool getPool() {
+        return pool;
+    }
+
+    public long getTotalTicks() {
+        return totalTicks;
+    }
+
+    public Genome getChampion() {
+        return champion;
+    }
+
+    public double getChampionFitness() {
+        return championFitness;
+    }
+
+    public void setCheckpoints(final CheckpointWriter checkpoints) {
+        this.checkpoints = checkpoints;
+    }
+
+    //Eğitimi JMX'e açar; adım sınırı sadece tek ortak parkurda desteklenir
+    public Training manage() {
+        training = new Training(new Training.Host() {
+
+            @Override
+            public int getTickRate() {
+                return tickRate;
+            }
+
+            @Override
+            public void setTickRate(final int ticksPerSecond) {
+                if (fitness != null && ticksPerSecond != 0)
+                    throw new IllegalArgumentException(
+                            "Tick rate is not supported with --episodes");
+                tickRate = ticksPerSecond;
+            }
+
+            @Override
+            public void checkpoint(final Path file) throws IOException {
+                Checkpoint.write(file, Checkpoint.encode(pool));
+            }
+
+            @Override
+            public Genome champion() {
+                return champion;
+            }
+        });
+        return training;
+    }
+
+    //Bir jenerasyonu bütün kuşlar ölene ya da sınırı dolana kadar oynatır, uygunlukları yazar ve adım sayısını döndürür
+    public long evaluate() {
+        final long ticks;
+        if (fitness != null)
+            ticks = fitness.evaluate(pool);
+        else {
+            game.initializeGame();
+            long next = System.nanoTime();
+            boolean done = false;
+            while (!done) {
+                game.eval();
+                game.update();
+                done = game.learn();
+                if (training != null) {
+                    if ((game.ticks & 63) == 0)
+                        training.publish(pool, game.alive(),
+                                totalTicks + game.ticks, false);
+                    training.service();
+                    next = throttle(next);
+                }
+            }
+            ticks = game.ticks;
+        }
+        totalTicks += ticks;
+
+        //En iyi genom bir sonraki jenerasyonda değişebileceği için kopyalanır
+        for (final Species species : pool.species)
+            for (final Genome genome : species.genomes)
+                if (genome.fitness > championFitness) {
+                    championFitness = genome.fitness;
+                    champion = genome.copy(pool);
+                }
+        return ticks;
+    }
+
+    //Bir jenerasyonu oynatır ve ardından yeni jenerasyonu üretir
+    public long runGeneration() {
+        final long ticks = evaluate();
+        pool.newGeneration();
+        ++generations;
+        if (checkpoints != null)
+            checkpoints.generationDone(pool);
+        if (training != null) {
+            training.publish(pool, 0, totalTicks, true);
+            training.service();
+        }
+        return ticks;
+    }
+
+    //Adım sınırı varsa bir sonraki adımın zamanına kadar bekler ve sonraki zamanı döndürür
+    private long throttle(final long next) {
+        final int rate = tickRate;
+        if (rate == 0)
+            return next;
+        final long period = 1000000000L / rate;
+        final long now = System.nanoTime();
+        if (now - next < 0)
+            LockSupport.parkNanos(next - now);
+        //Çok geride kalınırsa yetişmeye çalışmak yerine saat kaydırılır
+        return now - next > period ? now + period : next + period;
+    }
+
+    //Verilen sayıda jenerasyon eğitir, 0 ise durmadan devam eder
+    public void train(final int maxGenerations) {
+        //Kayıttan yüklenen havuz zaten doludur
+        if (pool.species.isEmpty())
+            pool.initializePool();
+
+        final long start = System.nanoTime();
+        while (maxGenerations <= 0 || generations < maxGenerations) {
+            final long ticks = runGeneration();
+            System.out.printf("Generation %d: %d ticks, %d species, max fitness %.1f%n",
+                    pool.generation, ticks, pool.species.size(), pool.maxFitness);
+        }
+        final double seconds = (System.nanoTime() - start) / 1e9;
+        if (checkpoints != null)
+            checkpoints.finish(pool);
+
+        System.out.printf("%d generations, %d ticks in %.2f s: %.0f ticks/s, %.2f generations/s%n",
+                generations, totalTicks, seconds, totalTicks / seconds,
+                generations / seconds);
+    }
+
+    public static void main(final String[] args) {
+        //AWT hiçbir zaman ekran aramasın
+        System.setProperty("java.awt.headless", "true");
+
+        final Config config = new Config();
+        Long seed = null;
+        int generations = 100;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int episodes = 0;
+        int maxTicks = 10000;
+        FitnessEvaluator.Aggregate aggregate = FitnessEvaluator.Aggregate.MEAN;
+        int islands = 1;
+        int interval = 5;
+        int migrants = 2;
+        Path checkpoint = null;
+        int checkpointEvery = 10;
+        Path resume = null;
+        Path export = null;
+        boolean batch = false;
+        boolean compile = false;
+        String profile = null;
+        for (int i = 0; i < args.length; ++i) {
+            final String arg = args[i];
+            if (i + 1 >= args.length)
+                usage("Eksik değer: " + arg);
+            final String value = args[++i];
+            try {
+                if (arg.equals("--population"))
+                    config.population = Integer.parseInt(value);
+                else if (arg.equals("--seed"))
+                    seed = Long.parseLong(value);
+                else if (arg.equals("--generations"))
+                    generations = Integer.parseInt(value);
+                else if (arg.equals("--threads"))
+                    threads = Integer.parseInt(value);
+                else if (arg.equals("--episodes"))
+                    episodes = Integer.parseInt(value);
+                else if (arg.equals("--max-ticks"))
+                    maxTicks = Integer.parseInt(value);
+                else if (arg.equals("--generation-ticks"))
+                    config.generationTicks = Integer.parseInt(value);
+                else if (arg.equals("--generation-time"))
+                    config.generationMillis = Long.parseLong(value);
+                else if (arg.equals("--timeout"))
+                    config.timeout = Integer.parseInt(value);
+                else if (arg.equals("--aggregate")) {
+                    if (value.equals("mean"))
+                        aggregate = FitnessEvaluator.Aggregate.MEAN;
+                    else if (value.equals("min"))
+                        aggregate = FitnessEvaluator.Aggregate.MIN;
+                    else
+                        usage("Geçersiz birleştirme: " + value);
+                } else if (arg.equals("--islands"))
+                    islands = Integer.parseInt(value);
+                else if (arg.equals("--migration-interval"))
+                    interval = Integer.parseInt(value);
+                else if (arg.equals("--migrants"))
+                    migrants = Integer.parseInt(value);
+                else if (arg.equals("--checkpoint"))
+                    checkpoint = Paths.get(value);
+                else if (arg.equals("--checkpoint-every"))
+                    checkpointEvery = Integer.parseInt(value);
+                else if (arg.equals("--resume"))
+                    resume = Paths.get(value);
+                else if (arg.equals("--export"))
+                    export = Paths.get(value);
+                else if (arg.equals("--activation")) {
+                    if (value.equals("exact"))
+                        config.activation = Activation.EXACT;
+                    else if (value.equals("table"))
+                        config.activation = Activation.TABLE;
+                    else if (value.equals("rational"))
+                        config.activation = Activation.RATIONAL;
+                    else
+                        usage("Geçersiz aktivasyon: " + value);
+                } else if (arg.equals("--inference")) {
+                    batch = value.equals("batch");
+                    compile = value.equals("compiled");
+                    if (!batch && !compile && !value.equals("scalar"))
+                        usage("Geçersiz değerlendirme: " + value);
+                } else if (arg.equals("--profile")) {
+                    if (!value.equals("summary") && !value.equals("jfr"))
+                        usage("Geçersiz ölçüm: " + value);
+                    profile = value;
+                }
+                else
+                    usage("Bilinmeyen seçenek: " + arg);
+            } catch (final NumberFormatException e) {
+                usage("Geçersiz sayı: " + value);
+            }
+        }
+        if (config.population < 1)
+            usage("Popülasyon en az 1 olmalı");
+        if (threads < 1)
+            usage("İş parçacığı sayısı en az 1 olmalı");
+        if (episodes < 0 || maxTicks < 1)
+            usage("Parkur sayısı ve adım sınırı pozitif olmalı");
+        if (config.generationTicks < 0 || config.generationMillis < 0
+                || config.timeout < 0)
+            usage("Jenerasyon sınırları negatif olamaz");
+        if (islands < 1 || interval < 1 || migrants < 0)
+            usage("Ada sayısı ve göç aralığı pozitif olmalı");
+        if (checkpointEvery < 1)
+            usage("Kayıt aralığı en az 1 olmalı");
+        if (islands > 1 && (checkpoint != null || resume != null))
+            usage("Kayıt alma adalarla birlikte desteklenmez");
+
+        Checkpoint restored = null;
+        if (resume != null)
+            try {
+                restored = Checkpoint.read(resume);
+            } catch (final IOException e) {
+                usage("Kayıt okunamadı: " + e.getMessage());
+            }
+
+        config.batch = batch;
+        config.compile = compile;
+        final ForkJoinPool executor = new ForkJoinPool(threads);
+        //Adalar zaten paralel çalıştığından, kuşlar her adanın kendi iş parçacığında değerlendirilir
+        final ParallelEvaluator evaluator = new ParallelEvaluator(executor,
+                islands > 1 ? Integer.MAX_VALUE : ParallelEvaluator.THRESHOLD);
+
+        //Tohum verilmezse rastgele seçilir ve çalışma tekrarlanabilsin diye yazdırılır
+        final Streams streams = new Streams(restored != null
+                ? restored.pool.streams.seed
+                : seed != null ? seed : Streams.randomSeed());
+        System.out.println("Seed: " + streams.seed);
+
+        final List<HeadlessTrainer> trainers = new ArrayList<HeadlessTrainer>();
+        for (int i = 0; i < islands; ++i) {
+            //Her adanın akışları ana tohumdan türetilir
+            final Pool pool;
+            if (restored != null) {
+                pool = restored.pool;
+                pool.config.batch = batch;
+                pool.config.compile = compile;
+                pool.config.generationTicks = config.generationTicks;
+                pool.config.generationMillis = config.generationMillis;
+            } else
+                pool = new Pool(config, islands == 1 ? streams : streams.island(i));
+            pool.setExecutor(executor);
+            if (profile != null)
+                pool.setProfiler(new Profiler(profile.equals("summary")));
+            final FitnessEvaluator fitness = episodes == 0 ? null
+                    : new FitnessEvaluator(episodes, maxTicks, aggregate,
+                            executor, evaluator);
+            trainers.add(new HeadlessTrainer(pool, evaluator, fitness));
+        }
+        if (batch)
+            System.out.println("Batch inference kernel: "
+                    + BatchEvaluator.KERNEL.getClass().getSimpleName());
+
+        if (islands == 1) {
+            final HeadlessTrainer trainer = trainers.get(0);
+            final CheckpointWriter writer = checkpoint == null ? null
+                    : new CheckpointWriter(checkpoint, checkpointEvery);
+            trainer.setCheckpoints(writer);
+            trainer.manage().register();
+            trainer.train(generations);
+            if (writer != null)
+                try {
+                    writer.close();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+        } else
+            new IslandModel(trainers, interval, migrants, executor)
+                    .train(generations);
+
+        if (export != null) {
+            HeadlessTrainer best = trainers.get(0);
+            for (final HeadlessTrainer trainer : trainers)
+                if (trainer.getChampionFitness() > best.getChampionFitness())
+                    best = trainer;
+            if (best.getChampion() == null)
+                System.err.println("Dışa aktarılacak genom yok");
+            else
+                try {
+                    Champion.export(best.getChampion(), export);
+                    System.out.printf("Champion with fitness %.1f exported to %s%n",
+                            best.getChampionFitness(), export);
+                } catch (final IOException e) {
+                    System.err.println("Şampiyon yazılamadı: " + e.getMessage());
+                }
+        }
+    }
+
+    private static void usage(final String message) {
+        System.err.println(message);
+        System.err.println("Kullanım: HeadlessTrainer [--population N] [--seed S] [--generations G] [--threads T]"
+                + " [--episodes E] [--max-ticks M] [--aggregate mean|min]"
+                + " [--generation-ticks N] [--generation-time MS] [--timeout N]"
+                + " [--islands K] [--migration-interval I] [--migrants N]"
+                + " [--checkpoint DOSYA] [--checkpoint-every C] [--resume DOSYA]"
+                + " [--export DOSYA] [--inference scalar|batch|compiled]"
+                + " [--activation exact|table|rational] [--profile summary|jfr]");
+        System.exit(1);
+    }
+}
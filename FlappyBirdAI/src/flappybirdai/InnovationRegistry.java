@@ -0,0 +1,89 @@
+package flappybirdai;
+
+import java.util.Arrays;
+
+/*
+Hands out innovation numbers for structural mutations. Within one generation the
+same mutation (same input, output and mutation type) in different genomes gets
+the same number, so matching structure is recognised by disjoint() and
+crossover. Keys are packed into a long and kept in an open-addressing table,
+so a lookup does not box or allocate.
+
+Yapısal mutasyonlar için innovation numarası dağıtır. Bir jenerasyon içinde farklı
+genomlardaki aynı mutasyon (aynı giriş, çıkış ve mutasyon türü) aynı numarayı alır.
+Anahtarlar bir long'a paketlenir ve açık adresli bir tabloda tutulur; arama
+sırasında kutulama ya da bellek ayırma yapılmaz.
+*/
+public class InnovationRegistry {
+
+    //Mutasyon türleri
+    public static final int LINK = 0;           //mutateLink ile eklenen bağlantı
+    public static final int NODE_IN = 1;        //mutateNode ile eklenen, yeni nörona giren bağlantı
+    public static final int NODE_OUT = 2;       //mutateNode ile eklenen, yeni nörondan çıkan bağlantı
+
+    private static final long EMPTY = -1L;
+
+    private final Pool pool;
+    private long[] keys = new long[64];
+    private int[] values = new int[64];
+    private int size;
+
+    public InnovationRegistry(final Pool pool) {
+        this.pool = pool;
+        Arrays.fill(keys, EMPTY);
+    }
+
+    //Bu jenerasyonda aynı mutasyon görüldüyse onun numarasını, yoksa yeni bir numara döndürür
+    public int innovation(final int input, final int output, final int type) {
+        final long key = (long) type << 62 | (long) input << 31 | output;
+        final int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key)
+                return values[slot];
+            slot = (slot + 1) & mask;
+        }
+
+        final int innovation = ++pool.innovation;
+        keys[slot] = key;
+        values[slot] = innovation;
+        if (++size * 2 > keys.length)
+            grow();
+        return innovation;
+    }
+
+    //Yeni jenerasyonda kayıtları unutur; numaralar havuzda artmaya devam eder
+    public void clear() {
+        if (size == 0)
+            return;
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    //Tabloyu iki katına çıkarır
+    private void grow() {
+        final long[] oldKeys = keys;
+        final int[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new int[oldValues.length * 2];
+        Arrays.fill(keys, EMPTY);
+        final int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; ++i)
+            if (oldKeys[i] != EMPTY) {
+                int slot = hash(oldKeys[i]) & mask;
+                while (keys[slot] != EMPTY)
+                    slot = (slot + 1) & mask;
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+    }
+
+    private static int hash(final long key) {
+        final long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ h >>> 32);
+    }
+}
@@ -0,0 +1,238 @@
+package flappybirdai;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/*
+Island-model evolution: several independent pools evolve side by side, each on
+its own thread, with their own speciation. Every few generations the best
+genomes of each island are copied to the next island in a ring, replacing its
+worst genomes. Migration happens between the parallel phases on one thread, so
+a run is reproducible for fixed seeds. Each island numbers its innovations on
+its own, so a migrant's genes are renumbered on arrival: a link (input, output)
+the target island already knows takes the target's number, any other link a
+fresh number of the target pool.
+
+Ada modeli: birden fazla bağımsız havuz kendi iş parçacığında ve kendi türleriyle
+yan yana evrilir. Birkaç jenerasyonda bir her adanın en iyi genomları halkadaki
+bir sonraki adaya kopyalanır ve oradaki en kötü genomların yerini alır. Göç,
+paralel aşamaların arasında tek iş parçacığında yapılır. Her ada innovation
+numaralarını kendisi verdiği için göçmenin genleri varışta yeniden numaralanır:
+hedef adada bilinen bir (giriş, çıkış) bağlantısı hedefin numarasını, diğerleri
+hedef havuzdan yeni bir numara alır.
+*/
+public class IslandModel {
+
+    private final List<HeadlessTrainer> islands;
+    private final int interval;             //Kaç jenerasyonda bir göç yapılır
+    private final int migrants;             //Her adadan göç eden genom sayısı
+    private final ExecutorService executor;
+
+    private int generations;                //Her adanın tamamladığı jenerasyon sayısı
+
+    public IslandModel(final List<HeadlessTrainer> islands, final int interval,
+            final int migrants, final ExecutorService executor) {
+        if (islands.isEmpty())
+            throw new IllegalArgumentException("no islands");
+        if (interval < 1)
+            throw new IllegalArgumentException("interval < 1");
+        this.islands = islands;
+        this.interval = interval;
+        this.migrants = migrants;
+        this.executor = executor;
+    }
+
+    //Verilen sayıda jenerasyon eğitir, 0 ise durmadan devam eder
+    public void train(final int maxGenerations) {
+        for (final HeadlessTrainer island : islands)
+            island.getPool().initializePool();
+
+        final long start = System.nanoTime();
+        while (maxGenerations <= 0 || generations < maxGenerations) {
+            int steps = interval;
+            if (maxGenerations > 0)
+                steps = Math.min(steps, maxGenerations - generations);
+            run(steps);
+
+            final StringBuilder line = new StringBuilder();
+            line.append("Generation ").append(generations).append(':');
+            for (final HeadlessTrainer island : islands)
+                line.append(String.format(" [%d species, max fitness %.1f]",
+                        island.getPool().species.size(),
+                        island.getPool().maxFitness));
+            System.out.println(line);
+        }
+        final double seconds = (System.nanoTime() - start) / 1e9;
+
+        long ticks = 0;
+        for (final HeadlessTrainer island : islands)
+            ticks += island.getTotalTicks();
+        System.out.printf("%d islands, %d generations, %d ticks in %.2f s: %.0f ticks/s, %.2f generations/s%n",
+                islands.size(), generations, ticks, seconds, ticks / seconds,
+                generations * islands.size() / seconds);
+    }
+
+    /*
+    Her adada verilen sayıda jenerasyon çalıştırır. Son jenerasyonun uygunlukları
+    hesaplandıktan sonra, yeni jenerasyon üretilmeden önce göç yapılır.
+    */
+    private void run(final int steps) {
+        final List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+        for (final HeadlessTrainer island : islands)
+            tasks.add(new Callable<Void>() {
+
+                @Override
+                public Void call() {
+                    for (int i = 1; i < steps; ++i)
+                        island.runGeneration();
+                    island.evaluate();
+                    return null;
+                }
+            });
+        invokeAll(tasks);
+
+        if (steps == interval)
+            migrate();
+
+        tasks.clear();
+        for (final HeadlessTrainer island : islands)
+            tasks.add(new Callable<Void>() {
+
+                @Override
+                public Void call() {
+                    island.getPool().newGeneration();
+                    return null;
+                }
+            });
+        invokeAll(tasks);
+        generations += steps;
+    }
+
+    //Her adanın en iyi genomlarını halkadaki bir sonraki adaya kopyalar
+    void migrate() {
+        if (islands.size() < 2 || migrants < 1)
+            return;
+
+        //Önce bütün göçmenler seçilir, böylece göç sırası sonucu etkilemez
+        final List<List<Genome>> emigrants = new ArrayList<List<Genome>>();
+        for (final HeadlessTrainer island : islands) {
+            final List<Genome> ranked = ranked(island.getPool());
+            emigrants.add(ranked.subList(0, Math.min(migrants, ranked.size())));
+        }
+
+        for (int i = 0; i < islands.size(); ++i) {
+            final Pool target = islands.get((i + 1) % islands.size()).getPool();
+            final List<Genome> incoming = emigrants.get(i);
+            removeWorst(target, incoming.size());
+            final Map<Long, Integer> known = innovations(target);
+            for (final Genome genome : incoming) {
+                final Genome copy = genome.copy(target);
+                renumber(copy, known);
+                copy.fitness = genome.fitness;
+                target.addToSpecies(copy);
+                if (copy.fitness > target.maxFitness)
+                    target.maxFitness = copy.fitness;
+            }
+        }
+    }
+
+    //Bağlantının (giriş, çıkış) anahtarı
+    private static long link(final Synapse gene) {
+        return (long) gene.input << 32 | (gene.output & 0xffffffffL);
+    }
+
+    //Havuzda bilinen her bağlantının en küçük innovation numarası
+    private static Map<Long, Integer> innovations(final Pool pool) {
+        final Map<Long, Integer> known = new HashMap<Long, Integer>();
+        for (final Species species : pool.species)
+            for (final Genome genome : species.genomes)
+                for (final Synapse gene : genome.genes) {
+                    final Integer innovation = known.get(link(gene));
+                    if (innovation == null || gene.innovation < innovation)
+                        known.put(link(gene), gene.innovation);
+                }
+        return known;
+    }
+
+    /*
+    Göçmenin genlerini hedef havuzun numaralarına çevirir ve yeniden sıralar. Hedefte
+    bilinmeyen bağlantılar hedef havuzdan yeni numara alır ve 'known'a eklenir, böylece
+    aynı bağlantıyı getiren göçmenler aynı numarayı paylaşır. Genomda aynı bağlantı
+    birden fazla gende varsa sonrakiler de yeni numara alır, numaralar tekil kalır.
+    */
+    static void renumber(final Genome genome, final Map<Long, Integer> known) {
+        final Pool pool = genome.pool;
+        final Set<Integer> used = new HashSet<Integer>();
+        for (final Synapse gene : genome.genes) {
+            Integer innovation = known.get(link(gene));
+            if (innovation == null) {
+                innovation = ++pool.innovation;
+                known.put(link(gene), innovation);
+            } else if (used.contains(innovation))
+                innovation = ++pool.innovation;
+            used.add(innovation);
+            gene.innovation = innovation;
+        }
+        Collections.sort(genome.genes, new Comparator<Synapse>() {
+
+            @Override
+            public int compare(final Synapse o1, final Synapse o2) {
+                return Integer.compare(o1.innovation, o2.innovation);
+            }
+        });
+    }
+
+    //Havuzun genomlarını uygunluğa göre azalan sırada döndürür
+    private static List<Genome> ranked(final Pool pool) {
+        final List<Genome> genomes = new ArrayList<Genome>();
+        for (final Species species : pool.species)
+            genomes.addAll(species.genomes);
+        Collections.sort(genomes, new Comparator<Genome>() {
+
+            @Override
+            public int compare(final Genome o1, final Genome o2) {
+                final double cmp = o2.fitness - o1.fitness;
+                return cmp == 0.0 ? 0 : cmp > 0.0 ? 1 : -1;
+            }
+        });
+        return genomes;
+    }
+
+    //Havuzdan en düşük uygunluklu genomları çıkarır, boşalan türleri siler
+    private static void removeWorst(final Pool pool, final int count) {
+        final List<Genome> ranked = ranked(pool);
+        for (int i = 0; i < count && i < ranked.size(); ++i) {
+            final Genome worst = ranked.get(ranked.size() - 1 - i);
+            for (final Species species : pool.species)
+                if (species.genomes.remove(worst))
+                    break;
+        }
+        final Iterator<Species> it = pool.species.iterator();
+        while (it.hasNext())
+            if (it.next().genomes.isEmpty())
+                it.remove();
+    }
+
+    private void invokeAll(final List<Callable<Void>> tasks) {
+        try {
+            for (final Future<Void> future : executor.invokeAll(tasks))
+                future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Island training interrupted", e);
+        } catch (final ExecutionException e) {
+            throw new IllegalStateException("Island training failed", e.getCause());
+        }
+    }
+}
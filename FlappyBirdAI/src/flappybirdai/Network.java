@@ -0,0 +1,218 @@
+package flappybirdai;
+
+import static flappybirdai.Pool.INPUTS;
+import static flappybirdai.Pool.OUTPUTS;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+The compiled form of a genome. Neurons are renumbered densely (inputs, outputs,
+then hidden neurons) and the enabled links are stored per neuron in flat arrays
+(CSR), in topological order, so evaluating needs no map lookups or allocation.
+Recurrent links are ordered by strongly connected component: a cycle is
+evaluated after everything that feeds it and reads the previous values of its
+later members, and every neuron outside a cycle sees its inputs of this tick.
+
+Bir genomun derlenmiş hali. Nöronlar sıkı şekilde yeniden numaralanır (girişler,
+çıkışlar, sonra gizli nöronlar) ve aktif bağlantılar nöron başına düz dizilerde
+(CSR) topolojik sırayla tutulur; değerlendirme için map araması ya da bellek
+ayırma gerekmez. Döngüsel bağlantılar güçlü bağlı bileşenlere göre sıralanır: bir
+döngü onu besleyen her şeyden sonra hesaplanır ve sonraki üyelerinin önceki
+değerlerini okur; döngü dışındaki her nöron girdilerinin bu adımdaki değerini görür.
+*/
+public class Network {
+
+    public final int neurons;           //Toplam nöron sayısı
+    final int[] order;                  //Hesaplanan nöronların topolojik sırası
+    final int[] start;                  //order[i] nöronunun girdileri [start[i], start[i + 1]) aralığında
+    final int[] sources;                //Bağlantının kaynak nöronu
+    final double[] weights;             //Bağlantının ağırlığı
+    public final Activation activation; //Nöronların aktivasyon fonksiyonu
+    private NetworkCompiler.Code code;  //Derlenmişse bayt kodu, yoksa null
+
+    //Aktif genlerden kesin aktivasyonlu ağı derler
+    public Network(final List<Synapse> genes) {
+        this(genes, Activation.EXACT);
+    }
+
+    //Aktif genlerden ağı derler
+    public Network(final List<Synapse> genes, final Activation activation) {
+        this.activation = activation;
+        //Gen numaralarını sıkı indekslere çevirir
+        final Map<Integer, Integer> index = new HashMap<Integer, Integer>();
+        for (int i = 0; i < INPUTS + OUTPUTS; ++i)
+            index.put(i, i);
+        int links = 0;
+        for (final Synapse gene : genes)
+            if (gene.enabled) {
+                ++links;
+                if (!index.containsKey(gene.input))
+                    index.put(gene.input, index.size());
+                if (!index.containsKey(gene.output))
+                    index.put(gene.output, index.size());
+            }
+        neurons = index.size();
+
+        //Her nöronun girdilerini sayar
+        final int[] fanIn = new int[neurons];
+        for (final Synapse gene : genes)
+            if (gene.enabled)
+                ++fanIn[index.get(gene.output)];
+
+        //Girdileri hedef nörona göre gruplar (CSR), gen sırası korunur
+        final int[] offset = new int[neurons + 1];
+        for (int i = 0; i < neurons; ++i)
+            offset[i + 1] = offset[i] + fanIn[i];
+        final int[] linkSource = new int[links];
+        final double[] linkWeight = new double[links];
+        final int[] fill = offset.clone();
+        for (final Synapse gene : genes)
+            if (gene.enabled) {
+                final int slot = fill[index.get(gene.output)]++;
+                linkSource[slot] = index.get(gene.input);
+                linkWeight[slot] = gene.weight;
+            }
+
+        //Hesaplanan nöronlar arasındaki bağlantılar, kaynaktan hedefe (ters CSR)
+        final int[] fanOut = new int[neurons + 1];
+        int evaluated = 0;
+        for (int n = INPUTS; n < neurons; ++n)
+            if (fanIn[n] > 0) {
+                ++evaluated;
+                for (int l = offset[n]; l < offset[n + 1]; ++l)
+                    if (fanIn[linkSource[l]] > 0 && linkSource[l] >= INPUTS)
+                        ++fanOut[linkSource[l] + 1];
+            }
+        for (int i = 0; i < neurons; ++i)
+            fanOut[i + 1] += fanOut[i];
+        final int[] targets = new int[fanOut[neurons]];
+        final int[] next = fanOut.clone();
+        for (int n = INPUTS; n < neurons; ++n)
+            for (int l = offset[n]; l < offset[n + 1]; ++l)
+                if (fanIn[linkSource[l]] > 0 && linkSource[l] >= INPUTS)
+                    targets[next[linkSource[l]]++] = n;
+
+        /*
+        Tarjan algoritması (özyinelemesiz): güçlü bağlı bileşenler, yani döngüler,
+        ters topolojik sırayla bulunur ve 'order' sondan başa doldurulur. Böylece her
+        bileşen, kendisini besleyen bütün bileşenlerden sonra hesaplanır; döngüde
+        olmayan bir nöron (çıkış dahil) hiçbir zaman kaynaklarından önce hesaplanmaz.
+        Bir döngünün nöronları artan indeksle hesaplanır ve döngüde kendinden sonra
+        gelen nöronların önceki değerlerini okur.
+        */
+        order = new int[evaluated];
+        final int[] number = new int[neurons];      //Ziyaret sırası, 0 ise ziyaret edilmedi
+        final int[] low = new int[neurons];         //Ulaşılabilen en küçük ziyaret sırası
+        final int[] edge = new int[neurons];        //Sıradaki çıkan bağlantı
+        final boolean[] onStack = new boolean[neurons];
+        final int[] stack = new int[evaluated];     //Bileşeni henüz belli olmayan nöronlar
+        final int[] path = new int[evaluated];      //Derinlik öncelikli aramanın yolu
+        int top = 0;
+        int visited = 0;
+        int free = evaluated;                       //order'da doldurulmamış kısmın sonu
+        for (int root = INPUTS; root < neurons; ++root) {
+            if (fanIn[root] == 0 || number[root] != 0)
+                continue;
+            int depth = 0;
+            path[depth++] = root;
+            number[root] = low[root] = ++visited;
+            edge[root] = fanOut[root];
+            stack[top++] = root;
+            onStack[root] = true;
+            while (depth > 0) {
+                final int n = path[depth - 1];
+                if (edge[n] < fanOut[n + 1]) {
+                    final int m = targets[edge[n]++];
+                    if (number[m] == 0) {
+                        number[m] = low[m] = ++visited;
+                        edge[m] = fanOut[m];
+                        stack[top++] = m;
+                        onStack[m] = true;
+                        path[depth++] = m;
+                    } else if (onStack[m])
+                        low[n] = Math.min(low[n], number[m]);
+                    continue;
+                }
+
+                --depth;
+                if (depth > 0)
+                    low[path[depth - 1]] = Math.min(low[path[depth - 1]], low[n]);
+                //n bir bileşenin köküdür: yığında üstündeki nöronlarla bileşeni oluşturur
+                if (low[n] == number[n]) {
+                    final int end = free;
+                    int m;
+                    do {
+                        m = stack[--top];
+                        onStack[m] = false;
+                        order[--free] = m;
+                    } while (m != n);
+                    Arrays.sort(order, free, end);
+                }
+            }
+        }
+
+        //Bağlantıları hesaplama sırasına göre düz dizilere yazar
+        start = new int[evaluated + 1];
+        sources = new int[links];
+        weights = new double[links];
+        int l = 0;
+        for (int i = 0; i < evaluated; ++i) {
+            final int n = order[i];
+            start[i] = l;
+            for (int k = offset[n]; k < offset[n + 1]; ++k, ++l) {
+                sources[l] = linkSource[k];
+                weights[l] = linkWeight[k];
+            }
+        }
+        start[evaluated] = l;
+    }
+
+    //Ağı bayt koduna derler; ağ derlenemeyecek kadar büyükse false döner ve yorumlayıcı kullanılır
+    public boolean compile() {
+        code = NetworkCompiler.compile(this);
+        return code != null;
+    }
+
+    //Ağ bayt koduna derlenmiş mi
+    boolean compiled() {
+        return code != null;
+    }
+
+    //Nöron değerlerini tutacak yeni bir dizi
+    public double[] newState() {
+        return new double[neurons];
+    }
+
+    /*
+    Ağı değerlendirir. 'state' nöron değerlerini tutar ve çağrılar arasında korunur
+    (döngüsel bağlantılar önceki değeri okur). Çıktılar 'output' dizisine yazılır.
+    */
+    public void evaluate(final double[] state, final double[] input,
+            final double[] output) {
+        if (code != null) {
+            code.evaluate(state, input, output);
+            return;
+        }
+
+        for (int i = 0; i < INPUTS; ++i)
+            state[i] = input[i];
+
+        final int[] order = this.order;
+        final int[] start = this.start;
+        final int[] sources = this.sources;
+        final double[] weights = this.weights;
+        final Activation activation = this.activation;
+        for (int i = 0; i < order.length; ++i) {
+            double sum = 0.0;
+            for (int l = start[i]; l < start[i + 1]; ++l)
+                sum += weights[l] * state[sources[l]];
+            state[order[i]] = activation.apply(sum);
+        }
+
+        for (int i = 0; i < OUTPUTS; ++i)
+            output[i] = state[INPUTS + i];
+    }
+}
@@ -0,0 +1,383 @@
+package flappybirdai;
+
+import static flappybirdai.Pool.INPUTS;
+import static flappybirdai.Pool.OUTPUTS;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+Compiles a network into straight-line bytecode: every neuron is a local
+variable, every weight a constant, and the links are unrolled in evaluation
+order, so the JIT can inline the whole network. The class is defined as a hidden
+class that is not strongly linked to its loader, so it can be unloaded once the
+cache has evicted it and no network uses it any more.
+
+The JIT counts invocations per class, so a new class runs in the bytecode
+interpreter, then in C1, and reaches C2 only after thousands of calls; a bird
+that lives for one generation never gets there, and every compilation takes
+CPU time from the game. Genome.generateNetwork therefore only compiles genomes
+that have survived MIN_AGE generations. The cache key includes the weights, so
+a surviving genome gets its class back with everything the JIT has learned.
+
+The generated code does the same double operations in the same order as
+Network.evaluate, so the results are identical. Networks whose method would be
+larger than the JIT's huge method limit (8000 bytes) are not compiled and stay
+on the interpreter.
+
+Bir ağı düz bayt koduna derler: her nöron bir yerel değişken, her ağırlık bir
+sabittir ve bağlantılar hesaplama sırasıyla açılır; JIT bütün ağı satır içine
+alabilir. Sınıf, yükleyicisine güçlü bağlı olmayan gizli bir sınıf olarak
+tanımlanır; önbellekten çıkarıldığında ve hiçbir ağ kullanmadığında boşaltılabilir.
+
+JIT çağrıları sınıf başına sayar: yeni bir sınıf önce bayt kodu yorumlayıcısında,
+sonra C1'de çalışır ve C2'ye ancak binlerce çağrıdan sonra ulaşır; bir jenerasyon
+yaşayan bir kuş oraya hiç varamaz ve her derleme oyundan işlemci zamanı alır. Bu
+yüzden Genome.generateNetwork sadece MIN_AGE jenerasyon hayatta kalan genomları
+derler. Önbellek anahtarı ağırlıkları da içerir; hayatta kalan bir genom JIT'in
+öğrendikleriyle birlikte kendi sınıfını geri alır.
+
+Üretilen kod Network.evaluate ile aynı işlemleri aynı sırayla yapar, sonuçlar
+aynıdır. Metodu JIT sınırından (8000 bayt) büyük olacak ağlar derlenmez.
+*/
+public class NetworkCompiler {
+
+    //Derlenmiş bir ağ; Network.evaluate ile aynı sözleşme
+    interface Code {
+        void evaluate(double[] state, double[] input, double[] output);
+    }
+
+    static final int MIN_AGE = 10;                     //Bu kadar jenerasyon hayatta kalan genomlar derlenir
+    private static final int MAX_CODE = 8000;          //HotSpot'un HugeMethodLimit değeri
+    private static final int MAX_NEURONS = 4096;       //Yerel değişken sayısı sınırının altında kalır
+    private static final int CACHE_SIZE = 4096;        //Önbellekteki en fazla sınıf
+    private static final String CLASS_NAME = "flappybirdai/CompiledNetwork";
+
+    //Yapı ve ağırlıklara göre anahtarlanan, en uzun süre kullanılmayanı çıkaran önbellek
+    private static final Map<Key, Code> CACHE = new LinkedHashMap<Key, Code>(
+            64, 0.75f, true) {
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Key, Code> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    private NetworkCompiler() {
+    }
+
+    //Ağın derlenmiş kodunu döndürür, ağ çok büyükse null
+    static Code compile(final Network network) {
+        final Key key = new Key(network);
+        synchronized (CACHE) {
+            final Code cached = CACHE.get(key);
+            if (cached != null)
+                return cached;
+        }
+
+        final byte[] bytes = generate(network);
+        if (bytes == null)
+            return null;
+        final Code code;
+        try {
+            final MethodHandles.Lookup lookup = MethodHandles.lookup()
+                    .defineHiddenClass(bytes, true);
+            code = (Code) lookup.lookupClass().getDeclaredConstructor()
+                    .newInstance();
+        } catch (final ReflectiveOperationException e) {
+            throw new IllegalStateException("Network compilation failed", e);
+        }
+
+        synchronized (CACHE) {
+            CACHE.put(key, code);
+        }
+        return code;
+    }
+
+    //Önbellekteki sınıf sayısı
+    static int cached() {
+        synchronized (CACHE) {
+            return CACHE.size();
+        }
+    }
+
+    //Ağın yapısı, ağırlıkları ve aktivasyonu
+    private static class Key {
+        private final Network network;
+        private final int hash;
+
+        private Key(final Network network) {
+            this.network = network;
+            hash = 31 * (31 * (31 * (31 * (31 * network.activation.ordinal()
+                    + network.neurons)
+                    + Arrays.hashCode(network.order))
+                    + Arrays.hashCode(network.start))
+                    + Arrays.hashCode(network.sources))
+                    + Arrays.hashCode(network.weights);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof Key))
+                return false;
+            final Network other = ((Key) obj).network;
+            return hash == obj.hashCode() && network.neurons == other.neurons
+                    && network.activation == other.activation
+                    && Arrays.equals(network.order, other.order)
+                    && Arrays.equals(network.start, other.start)
+                    && Arrays.equals(network.sources, other.sources)
+                    && Arrays.equals(network.weights, other.weights);
+        }
+    }
+
+    //Sınıf dosyasını üretir; metot JIT sınırını aşarsa null döner
+    private static byte[] generate(final Network network) {
+        final int neurons = network.neurons;
+        if (neurons > MAX_NEURONS)
+            return null;
+        final int[] order = network.order;
+        final int[] start = network.start;
+        final int[] sources = network.sources;
+        final double[] weights = network.weights;
+
+        //position[n]: nöronun hesaplama sırası; -1 ise giriş ya da hiç hesaplanmayan nöron
+        final int[] position = new int[neurons];
+        Arrays.fill(position, -1);
+        for (int i = 0; i < order.length; ++i)
+            position[order[i]] = i;
+
+        final ConstantPool pool = new ConstantPool();
+        final int thisClass = pool.classRef(CLASS_NAME);
+        final int superClass = pool.classRef("java/lang/Object");
+        final int codeInterface = pool.classRef("flappybirdai/NetworkCompiler$Code");
+        final int objectInit = pool.methodRef("java/lang/Object", "<init>", "()V");
+        final int sigmoid = pool.methodRef("flappybirdai/Neuron",
+                network.activation.method, "(D)D");
+        final int codeName = pool.utf8("Code");
+
+        //evaluate(double[] state, double[] input, double[] output): 1 state, 2 input, 3 output, 4 + 2n nöron n
+        final Bytecode code = new Bytecode();
+        for (int i = 0; i < INPUTS; ++i) {
+            code.op(0x2c).push(i).op(0x31).dstore(local(i));         //input[i]
+            code.op(0x2b).push(i).dload(local(i)).op(0x52);         //state[i] = input[i]
+        }
+        for (int i = 0; i < order.length; ++i) {
+            code.op(0x0e);                                          //sum = 0.0
+            for (int l = start[i]; l < start[i + 1]; ++l) {
+                final int source = sources[l];
+                //Hiç hesaplanmayan gizli nöron her zaman 0'dır; terimi toplamı değiştirmez
+                if (source >= INPUTS && position[source] < 0)
+                    continue;
+                code.op(0x14).u2(pool.doubleConstant(weights[l]));
+                if (source < INPUTS || position[source] < i)
+                    code.dload(local(source));
+                else
+                    code.op(0x2b).push(source).op(0x31);            //Döngü: önceki değer state'ten okunur
+                code.op(0x6b).op(0x63);                             //sum += w * x
+            }
+            code.op(0xb8).u2(sigmoid);
+            code.dstore(local(order[i]));
+            code.op(0x2b).push(order[i]).dload(local(order[i])).op(0x52);
+            if (code.size() > MAX_CODE)
+                return null;
+        }
+        for (int i = 0; i < OUTPUTS; ++i) {
+            final int n = INPUTS + i;
+            code.op(0x2d).push(i);
+            if (position[n] >= 0)
+                code.dload(local(n));
+            else
+                code.op(0x2b).push(n).op(0x31);
+            code.op(0x52);
+        }
+        code.op(0xb1);
+        if (code.size() > MAX_CODE)
+            return null;
+
+        final Bytecode init = new Bytecode();
+        init.op(0x2a).op(0xb7).u2(objectInit).op(0xb1);
+
+        try {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            final DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(52);                 //Java 8 sürümü; dallanma olmadığı için StackMapTable gerekmez
+            final int initName = pool.utf8("<init>");
+            final int initType = pool.utf8("()V");
+            final int evaluateName = pool.utf8("evaluate");
+            final int evaluateType = pool.utf8("([D[D[D)V");
+            pool.write(out);
+            out.writeShort(0x0001 | 0x0010 | 0x0020);  //public final super
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(1);
+            out.writeShort(codeInterface);
+            out.writeShort(0);                  //Alan yok
+            out.writeShort(2);
+            writeMethod(out, initName, initType, codeName, 1, 1, init);
+            writeMethod(out, evaluateName, evaluateType, codeName, 8,
+                    local(neurons), code);
+            out.writeShort(0);                  //Sınıf niteliği yok
+            out.flush();
+            return bytes.toByteArray();
+        } catch (final IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    //Nöron n'nin yerel değişken indeksi
+    private static int local(final int neuron) {
+        return 4 + 2 * neuron;
+    }
+
+    private static void writeMethod(final DataOutputStream out, final int name,
+            final int type, final int codeName, final int maxStack,
+            final int maxLocals, final Bytecode code) throws IOException {
+        out.writeShort(0x0001);                 //public
+        out.writeShort(name);
+        out.writeShort(type);
+        out.writeShort(1);
+        out.writeShort(codeName);
+        out.writeInt(12 + code.size());
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(code.size());
+        code.writeTo(out);
+        out.writeShort(0);                      //İstisna tablosu yok
+        out.writeShort(0);                      //Nitelik yok
+    }
+
+    //Sınıf dosyasının sabit havuzu
+    private static class ConstantPool {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        private final Map<String, Integer> entries = new HashMap<String, Integer>();
+        private int count = 1;
+
+        private int utf8(final String value) {
+            final Integer index = entries.get("U" + value);
+            if (index != null)
+                return index;
+            try {
+                out.writeByte(1);
+                out.writeUTF(value);
+            } catch (final IOException e) {
+                throw new IllegalStateException(e);
+            }
+            entries.put("U" + value, count);
+            return count++;
+        }
+
+        private int classRef(final String name) {
+            final int nameIndex = utf8(name);
+            return entry("C" + name, 7, nameIndex, -1);
+        }
+
+        private int methodRef(final String owner, final String name,
+                final String type) {
+            final int ownerIndex = classRef(owner);
+            final int nameAndType = entry("N" + name + type, 12, utf8(name),
+                    utf8(type));
+            return entry("M" + owner + "." + name + type, 10, ownerIndex,
+                    nameAndType);
+        }
+
+        private int doubleConstant(final double value) {
+            final String key = "D" + Double.doubleToRawLongBits(value);
+            final Integer index = entries.get(key);
+            if (index != null)
+                return index;
+            try {
+                out.writeByte(6);
+                out.writeDouble(value);
+            } catch (final IOException e) {
+                throw new IllegalStateException(e);
+            }
+            entries.put(key, count);
+            count += 2;                         //Double iki yer kaplar
+            return count - 2;
+        }
+
+        //İki u2 alanlı bir kayıt ('second' -1 ise tek alan)
+        private int entry(final String key, final int tag, final int first,
+                final int second) {
+            final Integer index = entries.get(key);
+            if (index != null)
+                return index;
+            try {
+                out.writeByte(tag);
+                out.writeShort(first);
+                if (second >= 0)
+                    out.writeShort(second);
+            } catch (final IOException e) {
+                throw new IllegalStateException(e);
+            }
+            entries.put(key, count);
+            return count++;
+        }
+
+        private void write(final DataOutputStream target) throws IOException {
+            target.writeShort(count);
+            bytes.writeTo(target);
+        }
+    }
+
+    //Bir metodun bayt kodu
+    private static class Bytecode {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        private Bytecode op(final int opcode) {
+            bytes.write(opcode);
+            return this;
+        }
+
+        private Bytecode u2(final int value) {
+            bytes.write(value >>> 8);
+            bytes.write(value);
+            return this;
+        }
+
+        //Bir int sabitini yığına koyar
+        private Bytecode push(final int value) {
+            if (value <= 5)
+                return op(0x03 + value);        //iconst_n
+            if (value <= Byte.MAX_VALUE)
+                return op(0x10).op(value);      //bipush
+            return op(0x11).u2(value);          //sipush
+        }
+
+        private Bytecode dload(final int index) {
+            return local(0x18, index);
+        }
+
+        private Bytecode dstore(final int index) {
+            return local(0x39, index);
+        }
+
+        private Bytecode local(final int opcode, final int index) {
+            if (index <= 0xff)
+                return op(opcode).op(index);
+            return op(0xc4).op(opcode).u2(index);    //wide
+        }
+
+        private int size() {
+            return bytes.size();
+        }
+
+        private void writeTo(final DataOutputStream out) throws IOException {
+            bytes.writeTo(out);
+        }
+    }
+}
@@ -1,13 +1,43 @@
 package flappybirdai;
 
-import java.util.ArrayList;
-import java.util.List;
-
-//Sigmoid tarafından tanımlanan 0 ile 1 arasında depolanan değeri içerir
+//Nöronların aktivasyon fonksiyonları; değeri -1 ile 1 arasında tutar. Hangisinin kullanılacağını Activation seçer
 public class Neuron {
+
+    //Tablonun kapsadığı aralık [-RANGE, RANGE]; dışında tanh(2.45 * 4) ile 1 arasındaki fark 6.2e-9'dur
+    private static final double RANGE = 4.0;
+    private static final int STEPS = 512;              //Birim aralıktaki tablo adımı
+    private static final double[] TABLE = new double[(int) (2 * RANGE * STEPS) + 1];
+
+    static {
+        for (int i = 0; i < TABLE.length; ++i)
+            TABLE[i] = sigmoid(i / (double) STEPS - RANGE);
+    }
+
     public static double sigmoid(final double x) {
         return 2.0 / (1.0 + Math.exp(-4.9 * x)) - 1.0;
     }
-    public double              value  = 0.0;
-    public final List<Synapse> inputs = new ArrayList<Synapse>();  
+
+    //Tablodan doğrusal aradeğerleme
+    public static double sigmoidTable(final double x) {
+        final double t = (x + RANGE) * STEPS;
+        if (t <= 0.0)
+            return -1.0;
+        if (t >= TABLE.length - 1)
+            return 1.0;
+        final int i = (int) t;
+        final double a = TABLE[i];
+        return a + (TABLE[i + 1] - a) * (t - i);
+    }
+
+    /*
+    sigmoid(x) = tanh(2.45x). tanh için Lambert sürekli kesrinden gelen 7/6 Padé
+    yaklaşımı; |y| yaklaşık 4.97'yi geçince 1'i aştığı için ±1'e kırpılır.
+    */
+    public static double sigmoidRational(final double x) {
+        final double y = 2.45 * x;
+        final double y2 = y * y;
+        final double r = y * (135135.0 + y2 * (17325.0 + y2 * (378.0 + y2)))
+                / (135135.0 + y2 * (62370.0 + y2 * (3150.0 + y2 * 28.0)));
+        return Math.max(-1.0, Math.min(1.0, r));
+    }
 }
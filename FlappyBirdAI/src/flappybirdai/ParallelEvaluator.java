@@ -0,0 +1,105 @@
+package flappybirdai;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/*
+Evaluates the networks of the living birds on several cores. Every bird only
+reads the shared tube inputs and writes its own state, so the result does not
+depend on the number of threads. Small populations stay on the calling thread.
+
+Yaşayan kuşların sinir ağlarını birden fazla çekirdekte değerlendirir. Her kuş
+sadece ortak boru girdilerini okur ve kendi durumunu yazar, bu yüzden sonuç iş
+parçacığı sayısına bağlı değildir. Küçük popülasyonlar çağıran iş parçacığında kalır.
+*/
+public class ParallelEvaluator {
+
+    public static final int THRESHOLD = 256;    //Bu sayının altındaki kuşlar tek iş parçacığında değerlendirilir
+    private static final int GRAIN = 64;        //Bir görevin değerlendirdiği en fazla kuş
+
+    private final ForkJoinPool executor;
+    private final int threshold;
+
+    //Her iş parçacığının kendi giriş ve çıkış dizileri
+    private final ThreadLocal<double[][]> scratch = new ThreadLocal<double[][]>() {
+
+        @Override
+        protected double[][] initialValue() {
+            return new double[][] { new double[Pool.INPUTS],
+                    new double[Pool.OUTPUTS] };
+        }
+    };
+
+    public ParallelEvaluator() {
+        this(ForkJoinPool.commonPool(), THRESHOLD);
+    }
+
+    public ParallelEvaluator(final ForkJoinPool executor, final int threshold) {
+        this.executor = executor;
+        this.threshold = threshold;
+    }
+
+    //Aynı iş parçacığı havuzunu ve eşiği kullanan toplu değerlendirici
+    BatchEvaluator newBatch() {
+        return new BatchEvaluator(executor, threshold);
+    }
+
+    //Oyunun verilen indeksteki kuşlarının ağlarını değerlendirir ve zıplayacak olanları işaretler
+    void evaluate(final Game game, final int[] birds, final int count,
+            final double tubeHeight, final double tubePosition) {
+        if (count < threshold || executor.getParallelism() < 2) {
+            evaluate(game, birds, 0, count, tubeHeight, tubePosition);
+            return;
+        }
+        executor.invoke(new Task(game, birds, 0, count, tubeHeight,
+                tubePosition));
+    }
+
+    //[from, to) aralığındaki kuşları sırayla değerlendirir
+    private void evaluate(final Game game, final int[] birds, final int from,
+            final int to, final double tubeHeight, final double tubePosition) {
+        final double[][] buffers = scratch.get();
+        final double[] input = buffers[0];
+        final double[] output = buffers[1];
+        input[1] = tubeHeight;
+        input[2] = tubePosition;
+        //Dördüncü girdi, boru boşluğunu ifade eden 1.0'a ayarlanır.
+        input[3] = 1.0;
+        for (int i = from; i < to; ++i)
+            game.think(birds[i], input, output);
+    }
+
+    //Kuş aralığını ikiye bölerek paralel değerlendiren görev
+    private class Task extends RecursiveAction {
+
+        private final Game game;
+        private final int[] birds;
+        private final int from;
+        private final int to;
+        private final double tubeHeight;
+        private final double tubePosition;
+
+        private Task(final Game game, final int[] birds, final int from,
+                final int to, final double tubeHeight,
+                final double tubePosition) {
+            this.game = game;
+            this.birds = birds;
+            this.from = from;
+            this.to = to;
+            this.tubeHeight = tubeHeight;
+            this.tubePosition = tubePosition;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= GRAIN) {
+                evaluate(game, birds, from, to, tubeHeight, tubePosition);
+                return;
+            }
+            final int middle = (from + to) >>> 1;
+            invokeAll(new Task(game, birds, from, middle, tubeHeight,
+                    tubePosition), new Task(game, birds, middle, to,
+                            tubeHeight, tubePosition));
+        }
+    }
+}
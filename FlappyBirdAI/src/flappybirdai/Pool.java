@@ -4,55 +4,70 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
 
-//Contains the population of birds
-//Kuşların popülasyonunu içerir
-public abstract class Pool {
-    public static final int POPULATION = 50;         //Başlangıç için50 kuş
-    public static final int STALE_SPECIES = 15;      //removeStaleSpecies() metodu için bir eşik değeri
+//Contains the population of birds. Every training run has its own pool
+//Kuşların popülasyonunu içerir. Her eğitim çalışmasının kendi havuzu vardır
+public class Pool {
     public static final int INPUTS = 4;              //4 inputs: bird x, bird y, pipe x, pipe y
     public static final int OUTPUTS = 1;             //Zıpla ya da zıplama
-    public static final int TIMEOUT = 20;             
-
-    //Mutasyonlarda belirli yöntemler için eşik değeri olarak kullanılan değerler
-    public static final double DELTA_DISJOINT = 2.0;
-    public static final double DELTA_WEIGHTS = 0.4;
-    public static final double DELTA_THRESHOLD = 1.0;
-    public static final double CONN_MUTATION = 0.25;
-    public static final double LINK_MUTATION = 2.0;
-    public static final double BIAS_MUTATION = 0.4;
-    public static final double NODE_MUTATION = 0.5;
-    public static final double ENABLE_MUTATION = 0.2;
-    public static final double DISABLE_MUTATION = 0.4;
-    public static final double STEP_SIZE = 0.1;
-    public static final double PERTURBATION = 0.9;
-    public static final double CROSSOVER = 0.75;
-
-    //Mutasyonları uygulamak için kullanılan rastgele sayıları üretir
-    public static final Random rnd = new Random();
-
-    public static final List<Species> species = new ArrayList<>();
-    public static int generation = 0;
-    public static int innovation = OUTPUTS;
-    public static double maxFitness = 0.0;
+
+    public final Config config;
+
+    //Mutasyonların, çaprazlamaların ve parkurların tohumlu akışları
+    public final Streams streams;
+
+    public final List<Species> species = new ArrayList<>();
+    public int generation = 0;
+    public int innovation = OUTPUTS;
+    public int nextSpeciesId = 0;                   //Sonraki türün numarası
+    //Aynı jenerasyondaki aynı yapısal mutasyonlara ortak numara verir
+    public final InnovationRegistry innovations = new InnovationRegistry(this);
+    //Yeni jenerasyonu türlere ayırır
+    private final Speciation speciation = new Speciation(this);
+    //Türlere ayırma gibi paralel işler için kullanılan iş parçacığı havuzu
+    private ForkJoinPool executor = ForkJoinPool.commonPool();
+    //Aşama ölçümü; null ise kapalıdır. Havuzun oyunları oluşturulmadan önce verilmelidir
+    Profiler profiler;
+    public double maxFitness = 0.0;
+    //Jenerasyon süre sınırında kesildiyse true; newGeneration() sıfırlar
+    boolean truncated;
+
+    //Rastgele bir ana tohumla; tohum streams.seed'den okunabilir
+    public Pool(final Config config) {
+        this(config, new Streams(Streams.randomSeed()));
+    }
+
+    public Pool(final Config config, final Streams streams) {
+        this.config = config;
+        this.streams = streams;
+    }
+
+    public void setExecutor(final ForkJoinPool executor) {
+        this.executor = executor;
+    }
+
+    public void setProfiler(final Profiler profiler) {
+        this.profiler = profiler;
+    }
 
     //Havuza tür (Kuş) ekler
-    public static void addToSpecies(final Genome child) {
-        for (final Species species : Pool.species)
+    public void addToSpecies(final Genome child) {
+        for (final Species species : this.species)
             if (child.sameSpecies(species.genomes.get(0))) {
                 species.genomes.add(child);
                 return;
             }
 
-        final Species childSpecies = new Species();
+        final Species childSpecies = new Species(this);
         childSpecies.genomes.add(child);
         species.add(childSpecies);
     }
 
     //Havuzdan belirli sayıda tür seçer cutToOne true ise sadece üst alacaktır
-    public static void cullSpecies(final boolean cutToOne) {
-        for (final Species species : Pool.species) {
+    public void cullSpecies(final boolean cutToOne) {
+        for (final Species species : this.species) {
             Collections.sort(species.genomes, new Comparator<Genome>() {
 
                 @Override
@@ -72,49 +87,108 @@ public abstract class Pool {
     }
 
     //50 kuşun initialize işlemi
-    public static void initializePool() {
-        for (int i = 0; i < POPULATION; ++i) {
-            final Genome basic = new Genome();
+    public void initializePool() {
+        final List<Genome> basics = new ArrayList<Genome>();
+        for (int i = 0; i < config.population; ++i) {
+            final Genome basic = new Genome(this);
             basic.maxNeuron = INPUTS;
-            basic.mutate();
-            addToSpecies(basic);
+            basic.mutate(streams.genome(generation, i));
+            basics.add(basic);
         }
+        speciation.assign(basics, executor);
     }
 
     //Popülasyonuna göre daha iyi sonuç elde eden kuşlardan yeni bir nesil oluşturur
-    public static void newGeneration() {
+    public void newGeneration() {
+        final Profiler profiler = this.profiler;
+        if (profiler != null)
+            profiler.population(this);
+
+        //Innovation numaraları jenerasyon içinde paylaşılır
+        innovations.clear();
+
         //Selects all birds that are above a certain fitness threshold
         //Belirli bir uygunluk eşiğinin üzerinde olan kuşları seçer
+        if (profiler != null)
+            profiler.begin();
         cullSpecies(false);
+        if (profiler != null) {
+            profiler.end(Profiler.Phase.CULL);
+            profiler.begin();
+        }
         rankGlobally();
+        if (profiler != null) {
+            profiler.end(Profiler.Phase.RANK);
+            profiler.begin();
+        }
         removeStaleSpecies();
+        if (profiler != null) {
+            profiler.end(Profiler.Phase.STALE);
+            profiler.begin();
+        }
         rankGlobally();
-        for (final Species species : Pool.species)
+        for (final Species species : this.species)
             species.calculateAverageFitness();
+        if (profiler != null) {
+            profiler.end(Profiler.Phase.RANK);
+            profiler.begin();
+        }
         removeWeakSpecies();
+        if (profiler != null) {
+            profiler.end(Profiler.Phase.WEAK);
+            profiler.begin();
+        }
         final double sum = totalAverageFitness();
+        /*
+        Her çocuk jenerasyondaki sırasına göre kendi akışını alır. Çocuklar yine
+        sırayla üretilir, çünkü innovation numaraları üretim sırasında verilir.
+        */
+        final int next = generation + 1;
+        final SplittableRandom rnd = streams.breeding(next);
         final List<Genome> children = new ArrayList<Genome>();
-        for (final Species species : Pool.species) {
+        for (final Species species : this.species) {
             final double breed = Math
-                    .floor(species.averageFitness / sum * POPULATION) - 1.0;
+                    .floor(species.averageFitness / sum * config.population) - 1.0;
             for (int i = 0; i < breed; ++i)
-                children.add(species.breedChild());
+                children.add(species.breedChild(streams.genome(next,
+                        children.size())));
+        }
+        if (profiler != null) {
+            profiler.end(Profiler.Phase.BREED);
+            profiler.begin();
         }
         cullSpecies(true);
-        while (children.size() + species.size() < POPULATION) {
-            final Species species = Pool.species
-                    .get(rnd.nextInt(Pool.species.size()));
-            children.add(species.breedChild());
+        //Her türün en iyi genomu bir sonraki jenerasyona geçer
+        for (final Species species : this.species)
+            for (final Genome genome : species.genomes)
+                ++genome.age;
+        if (profiler != null) {
+            profiler.end(Profiler.Phase.CULL);
+            profiler.begin();
         }
-        for (final Genome child : children)
-            addToSpecies(child);
+        while (children.size() + species.size() < config.population) {
+            final Species species = this.species
+                    .get(rnd.nextInt(this.species.size()));
+            children.add(species.breedChild(streams.genome(next,
+                    children.size())));
+        }
+        if (profiler != null) {
+            profiler.end(Profiler.Phase.BREED);
+            profiler.begin();
+        }
+        speciation.assign(children, executor);
         ++generation;
+        truncated = false;
+        if (profiler != null) {
+            profiler.end(Profiler.Phase.SPECIATE);
+            profiler.generationDone(generation);
+        }
     }
 
     //Nüfusun genomlarını uygunluğa göre sıralar
-    public static void rankGlobally() {
+    public void rankGlobally() {
         final List<Genome> global = new ArrayList<Genome>();
-        for (final Species species : Pool.species)
+        for (final Species species : this.species)
             for (final Genome genome : species.genomes)
                 global.add(genome);
 
@@ -135,9 +209,9 @@ public abstract class Pool {
 
     
     //Sadece bu kriterlere uyanları tutar
-    public static void removeStaleSpecies() {
+    public void removeStaleSpecies() {
         final List<Species> survived = new ArrayList<Species>();
-        for (final Species species : Pool.species) {
+        for (final Species species : this.species) {
             Collections.sort(species.genomes, new Comparator<Genome>() {
 
                 @Override
@@ -147,31 +221,44 @@ public abstract class Pool {
                 }
             });
 
+            //Süre sınırında kesilen jenerasyonda rekor kırılamaması yıpranma sayılmaz
             if (species.genomes.get(0).fitness > species.topFitness) {
                 species.topFitness = species.genomes.get(0).fitness;
                 species.staleness = 0;
-            } else
+            } else if (!truncated)
                 ++species.staleness;
 
-            if (species.staleness < STALE_SPECIES
+            if (species.staleness < config.staleSpecies
                     || species.topFitness >= maxFitness)
                 survived.add(species);
         }
+        /*
+        Rekoru kıran tür daha önce elendiyse bütün türler yıpranmış olabilir; yeni
+        jenerasyonun ebeveynsiz kalmaması için en iyi tür korunur
+        */
+        if (survived.isEmpty() && !species.isEmpty())
+            survived.add(Collections.max(species, new Comparator<Species>() {
+
+                @Override
+                public int compare(final Species o1, final Species o2) {
+                    return Double.compare(o1.topFitness, o2.topFitness);
+                }
+            }));
 
         species.clear();
         species.addAll(survived);
     }
 
     //Uygunluğun belirli bir eşiğin üstünde olup olmadığını görünce hayatta kalmamış tüm kuşları çıkarır
-    public static void removeWeakSpecies() {
+    public void removeWeakSpecies() {
         final List<Species> survived = new ArrayList<Species>();
 
         final double sum = totalAverageFitness();
-        for (final Species species : Pool.species) {
+        for (final Species species : this.species) {
             //Breed looks at the fitness in proportion to the population. If it at least 1, add it to the 'survived' list
             //Tür uygunluğa nüfusa oranla bakar en az 1 ise hayatta kalan listesine ekler
             final double breed = Math
-                    .floor(species.averageFitness / sum * POPULATION);
+                    .floor(species.averageFitness / sum * config.population);
             if (breed >= 1.0)
                 survived.add(species);
         }
@@ -181,9 +268,9 @@ public abstract class Pool {
     }
 
     //Popülasyonun ortalama türleri
-    public static double totalAverageFitness() {
+    public double totalAverageFitness() {
         double total = 0;
-        for (final Species species : Pool.species)
+        for (final Species species : this.species)
             total += species.averageFitness;
         return total;
     }
@@ -0,0 +1,261 @@
+package flappybirdai;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/*
+Per-phase instrumentation of training. Game and Pool time every phase of a tick
+and of newGeneration() and count the bytes the calling thread allocated in it
+(ThreadMXBean); at the end of every generation the totals are committed as
+Flight Recorder events and optionally printed as one summary line. Work forked
+to other threads is timed but its allocations are not counted. Instrumentation
+is off unless a Profiler is set on the pool: every phase then costs one null
+check.
+
+Eğitimin aşama aşama ölçümü. Game ve Pool bir adımın ve newGeneration()'ın her
+aşamasının süresini ve çağıran iş parçacığının o aşamada ayırdığı baytları
+(ThreadMXBean) ölçer; her jenerasyonun sonunda toplamlar Flight Recorder
+olayları olarak kaydedilir ve istenirse tek satırlık bir özet yazılır. Başka iş
+parçacıklarına dağıtılan işin süresi ölçülür ama ayırdığı bellek sayılmaz. Havuza
+bir Profiler verilmedikçe ölçüm kapalıdır; her aşama sadece bir null kontrolüne
+mal olur.
+
+Kayıt: java -XX:StartFlightRecording=filename=run.jfr ... --profile jfr
+       jfr print --events flappybirdai.Phase run.jfr
+*/
+public final class Profiler {
+
+    //Ölçülen aşamalar; adım aşamaları ve newGeneration() aşamaları
+    public enum Phase {
+        EVAL("eval"),           //Ağların değerlendirilmesi
+        UPDATE("update"),       //Fizik ve çarpışma
+        LEARN("learn"),         //Uygunluk hesabı
+        CULL("cull"),           //cullSpecies
+        RANK("rank"),           //rankGlobally ve tür ortalamaları
+        STALE("stale"),         //removeStaleSpecies
+        WEAK("weak"),           //removeWeakSpecies
+        BREED("breed"),         //Çocukların üretilmesi
+        SPECIATE("speciate");   //Çocukların türlere ayrılması (addToSpecies)
+
+        public final String label;
+
+        Phase(final String label) {
+            this.label = label;
+        }
+    }
+
+    @Name("flappybirdai.Phase")
+    @Label("Training Phase")
+    @Description("Total time and allocation of one phase in one generation")
+    @Category("FlappyBirdAI")
+    @StackTrace(false)
+    static final class PhaseEvent extends Event {
+        @Label("Generation")
+        int generation;
+        @Label("Phase")
+        String phase;
+        @Label("Calls")
+        int calls;
+        @Label("Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long time;
+        @Label("Allocated")
+        @DataAmount
+        long allocated;
+    }
+
+    @Name("flappybirdai.Generation")
+    @Label("Training Generation")
+    @Description("Ticks and network sizes of one generation")
+    @Category("FlappyBirdAI")
+    @StackTrace(false)
+    static final class GenerationEvent extends Event {
+        @Label("Generation")
+        int generation;
+        @Label("Ticks")
+        long ticks;
+        @Label("Genomes")
+        int genomes;
+        @Label("Species")
+        int species;
+        @Label("Genes")
+        long genes;
+        @Label("Max Genes")
+        int maxGenes;
+        @Label("Neurons")
+        long neurons;
+        @Label("Max Neurons")
+        int maxNeurons;
+        @Label("Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long time;
+        @Label("Allocated")
+        @DataAmount
+        long allocated;
+    }
+
+    //İş parçacığının ayırdığı baytlar; JVM desteklemiyorsa hep 0
+    private static final com.sun.management.ThreadMXBean THREADS;
+    static {
+        final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        THREADS = threads instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) threads)
+                        .isThreadAllocatedMemorySupported()
+                                ? (com.sun.management.ThreadMXBean) threads
+                                : null;
+    }
+
+    private final boolean summary;          //Her jenerasyonda özet satırı yazılır
+
+    //Bu jenerasyondaki aşama toplamları, Phase sırasına göre
+    private final int[] calls = new int[Phase.values().length];
+    private final long[] time = new long[calls.length];
+    private final long[] allocated = new long[calls.length];
+
+    //Açık olan aşamanın başlangıcı; aşamalar iç içe geçmez
+    private long startTime;
+    private long startAllocated;
+
+    //newGeneration() başındaki, değerlendirilen popülasyonun boyutları
+    private int genomes;
+    private int species;
+    private long genes;
+    private int maxGenes;
+    private long neurons;
+    private int maxNeurons;
+
+    //summary true ise her jenerasyonun sonunda System.out'a bir satır yazar
+    public Profiler(final boolean summary) {
+        this.summary = summary;
+    }
+
+    private static long allocatedBytes() {
+        return THREADS == null ? 0L : THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    //Bir aşamayı başlatır
+    public void begin() {
+        startAllocated = allocatedBytes();
+        startTime = System.nanoTime();
+    }
+
+    //Açık aşamayı bitirir ve toplamlara ekler
+    public void end(final Phase phase) {
+        final long now = System.nanoTime();
+        final int p = phase.ordinal();
+        ++calls[p];
+        time[p] += now - startTime;
+        allocated[p] += allocatedBytes() - startAllocated;
+    }
+
+    //Başka bir iş parçacığındaki ölçümü ekler (bağımsız parkurlar); o ölçüm bitmiş olmalıdır
+    public void add(final Profiler other) {
+        for (int p = 0; p < calls.length; ++p) {
+            calls[p] += other.calls[p];
+            time[p] += other.time[p];
+            allocated[p] += other.allocated[p];
+        }
+    }
+
+    //Değerlendirilen popülasyonun boyutlarını kaydeder; newGeneration() başında çağrılır
+    public void population(final Pool pool) {
+        genomes = 0;
+        genes = 0;
+        maxGenes = 0;
+        neurons = 0;
+        maxNeurons = 0;
+        species = pool.species.size();
+        for (final Species s : pool.species)
+            for (final Genome genome : s.genomes) {
+                //Giriş, çıkış ve gizli nöronlar
+                final int n = genome.maxNeuron + Pool.OUTPUTS;
+                ++genomes;
+                genes += genome.genes.size();
+                maxGenes = Math.max(maxGenes, genome.genes.size());
+                neurons += n;
+                maxNeurons = Math.max(maxNeurons, n);
+            }
+    }
+
+    /*
+    Jenerasyonun toplamlarını olay olarak kaydeder, istenirse özet satırını yazar
+    ve sıfırlar. Adım sayısı update() çağrılarından sayılır, bağımsız parkurlarda
+    bütün parkurların toplamıdır.
+    */
+    public void generationDone(final int generation) {
+        long totalTime = 0;
+        long totalAllocated = 0;
+        for (int p = 0; p < calls.length; ++p) {
+            totalTime += time[p];
+            totalAllocated += allocated[p];
+        }
+        final long ticks = calls[Phase.UPDATE.ordinal()];
+
+        for (final Phase phase : Phase.values()) {
+            final int p = phase.ordinal();
+            final PhaseEvent event = new PhaseEvent();
+            if (event.shouldCommit()) {
+                event.generation = generation;
+                event.phase = phase.label;
+                event.calls = calls[p];
+                event.time = time[p];
+                event.allocated = allocated[p];
+                event.commit();
+            }
+        }
+        final GenerationEvent event = new GenerationEvent();
+        if (event.shouldCommit()) {
+            event.generation = generation;
+            event.ticks = ticks;
+            event.genomes = genomes;
+            event.species = species;
+            event.genes = genes;
+            event.maxGenes = maxGenes;
+            event.neurons = neurons;
+            event.maxNeurons = maxNeurons;
+            event.time = totalTime;
+            event.allocated = totalAllocated;
+            event.commit();
+        }
+
+        if (summary) {
+            final StringBuilder line = new StringBuilder();
+            line.append(String.format(
+                    "Profile %d: %d ticks, %d genomes, genes %.1f/%d, neurons %.1f/%d;",
+                    generation, ticks, genomes,
+                    genomes == 0 ? 0.0 : (double) genes / genomes, maxGenes,
+                    genomes == 0 ? 0.0 : (double) neurons / genomes, maxNeurons));
+            for (final Phase phase : Phase.values()) {
+                final int p = phase.ordinal();
+                line.append(String.format(" %s %.2f ms %s", phase.label,
+                        time[p] / 1e6, bytes(allocated[p])));
+            }
+            System.out.println(line);
+        }
+
+        for (int p = 0; p < calls.length; ++p) {
+            calls[p] = 0;
+            time[p] = 0;
+            allocated[p] = 0;
+        }
+    }
+
+    //Bayt sayısının okunabilir hali
+    private static String bytes(final long bytes) {
+        if (THREADS == null)
+            return "?";
+        if (bytes < 1024)
+            return bytes + " B";
+        if (bytes < 1024 * 1024)
+            return String.format("%.1f KB", bytes / 1024.0);
+        return String.format("%.1f MB", bytes / (1024.0 * 1024.0));
+    }
+}
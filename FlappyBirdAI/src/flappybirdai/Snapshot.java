@@ -0,0 +1,66 @@
+package flappybirdai;
+
+/*
+An immutable copy of everything the window draws for one frame. The simulation
+thread builds it between ticks and publishes it through a volatile field, so the
+renderer never reads Game or Pool while they change. With a large population
+only an evenly strided sample of the living birds is copied.
+
+Pencerenin bir karede çizdiği her şeyin değişmez bir kopyası. Simülasyon iş
+parçacığı bunu adımlar arasında oluşturur ve volatile bir alanla yayınlar; çizim
+Game ya da Pool değişirken onları hiç okumaz. Büyük popülasyonlarda yaşayan
+kuşların sadece eşit aralıklı bir örneği kopyalanır.
+*/
+final class Snapshot {
+
+    final int ticks;                    //Zemin kayması ve kanat animasyonu için
+    final int score;
+    final int generation;
+    final int population;
+    final int alive;                    //Bütün yaşayan kuşlar, sadece çizilenler değil
+    final double fitness;               //En iyi kuşun genomunun uygunluğu
+    final double maxFitness;
+    final Speed speed;
+
+    final int tubes;
+    final double[] tubePosition;
+    final double[] tubeHeight;
+
+    final int birds;                    //Çizilen kuş sayısı
+    final int[] species;                //Türlerin Species.id numaraları
+    final double[] height;
+    final double[] angle;
+
+    Snapshot(final Game game, final Pool pool, final Speed speed,
+            final int maxBirds) {
+        ticks = game.ticks;
+        score = game.score;
+        generation = pool.generation;
+        population = pool.config.population;
+        alive = game.livingCount;
+        fitness = game.genomes[game.best].fitness;
+        maxFitness = pool.maxFitness;
+        this.speed = speed;
+
+        tubes = game.tubeCount;
+        tubePosition = new double[tubes];
+        tubeHeight = new double[tubes];
+        for (int i = 0; i < tubes; ++i) {
+            final int t = game.tube(i);
+            tubePosition[i] = game.tubePosition[t];
+            tubeHeight[i] = game.tubeHeight[t];
+        }
+
+        final int stride = Math.max(1, (alive + maxBirds - 1) / maxBirds);
+        birds = (alive + stride - 1) / stride;
+        species = new int[birds];
+        height = new double[birds];
+        angle = new double[birds];
+        for (int k = 0, j = 0; j < birds; k += stride, ++j) {
+            final int bird = game.living[k];
+            species[j] = game.species[bird].id;
+            height[j] = game.height[bird];
+            angle[j] = game.angle[bird];
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package flappybirdai;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/*
+Puts a batch of new genomes into species. The innovation numbers and weights of
+each species' representative are copied into flat arrays once, every child is
+compared against the existing representatives in parallel, and the distance
+calculation stops as soon as the disjoint term alone reaches the threshold.
+Children are then placed one by one in their original order, so the species
+are exactly the same as with Pool.addToSpecies called in a loop.
+
+Bir grup yeni genomu türlere yerleştirir. Her türün temsilcisinin innovation
+numaraları ve ağırlıkları bir kez düz dizilere kopyalanır, her çocuk mevcut
+temsilcilerle paralel olarak karşılaştırılır ve ayrık gen terimi tek başına
+eşiği geçtiğinde hesaplama durur. Çocuklar sonra asıl sıralarıyla tek tek
+yerleştirilir; sonuç addToSpecies ile aynıdır.
+*/
+public class Speciation {
+
+    public static final int THRESHOLD = 128;    //Bu sayının altındaki çocuklar tek iş parçacığında karşılaştırılır
+    private static final int GRAIN = 32;        //Bir görevin karşılaştırdığı en fazla çocuk
+
+    //Bir genomun karşılaştırma için önbelleğe alınmış genleri
+    static class Features {
+        final int[] innovations;        //Sıralı innovation numaraları
+        final double[] weights;         //Aynı sıradaki ağırlıklar
+
+        Features(final Genome genome) {
+            final List<Synapse> genes = genome.genes;
+            innovations = new int[genes.size()];
+            weights = new double[genes.size()];
+            for (int i = 0; i < innovations.length; ++i) {
+                innovations[i] = genes.get(i).innovation;
+                weights[i] = genes.get(i).weight;
+            }
+        }
+    }
+
+    private final Pool pool;
+
+    public Speciation(final Pool pool) {
+        this.pool = pool;
+    }
+
+    //Çocukları sırayla türlere ekler, uygun tür yoksa yeni tür oluşturur
+    public void assign(final List<Genome> children, final ForkJoinPool executor) {
+        final List<Species> species = pool.species;
+        final int existing = species.size();
+        final Features[] representatives = new Features[existing];
+        for (int i = 0; i < existing; ++i)
+            representatives[i] = new Features(species.get(i).genomes.get(0));
+
+        //Her çocuğun mevcut türlerden ilk uyanı paralel bulunur
+        final Features[] features = new Features[children.size()];
+        final int[] match = new int[children.size()];
+        if (children.size() < THRESHOLD || executor.getParallelism() < 2)
+            compare(children, features, match, representatives, 0,
+                    children.size());
+        else
+            executor.invoke(new Task(children, features, match,
+                    representatives, 0, children.size()));
+
+        //Bu grupta oluşan türler sadece sonraki çocuklarla karşılaştırılır
+        final List<Features> created = new ArrayList<Features>();
+        for (int c = 0; c < children.size(); ++c) {
+            final Genome child = children.get(c);
+            if (match[c] >= 0) {
+                species.get(match[c]).genomes.add(child);
+                continue;
+            }
+
+            int found = -1;
+            for (int i = 0; i < created.size() && found < 0; ++i)
+                if (compatible(features[c], created.get(i), pool.config))
+                    found = i;
+
+            if (found >= 0)
+                species.get(existing + found).genomes.add(child);
+            else {
+                final Species childSpecies = new Species(pool);
+                childSpecies.genomes.add(child);
+                species.add(childSpecies);
+                created.add(features[c]);
+            }
+        }
+    }
+
+    /*
+    Genome.sameSpecies ile aynı sonucu verir. Ayrık genler sadece artabildiğinden,
+    ayrık terim eşiğe ulaştığı anda false döner.
+    */
+    static boolean compatible(final Features a, final Features b,
+            final Config config) {
+        final int[] innovations = a.innovations;
+        final int[] other = b.innovations;
+        final double max = Math.max(innovations.length, other.length);
+        double disjointGenes = 0.0;
+        double sum = 0.0;
+        double coincident = 0.0;
+        int j = 0;
+        for (int i = 0; i < innovations.length; ++i) {
+            while (j < other.length && other[j] < innovations[i])
+                ++j;
+            if (j < other.length && other[j] == innovations[i]) {
+                sum += Math.abs(a.weights[i] - b.weights[j]);
+                ++coincident;
+            } else if (config.deltaDisjoint * (++disjointGenes / max)
+                    >= config.deltaThreshold)
+                return false;
+        }
+
+        final double dd = config.deltaDisjoint * (disjointGenes / max);
+        final double dw = config.deltaWeights * (sum / coincident);
+        return dd + dw < config.deltaThreshold;
+    }
+
+    //[from, to) aralığındaki çocukları temsilcilerle karşılaştırır, ilk uyan türü 'match' dizisine yazar
+    private void compare(final List<Genome> children, final Features[] features,
+            final int[] match, final Features[] representatives,
+            final int from, final int to) {
+        for (int c = from; c < to; ++c) {
+            features[c] = new Features(children.get(c));
+            match[c] = -1;
+            for (int i = 0; i < representatives.length; ++i)
+                if (compatible(features[c], representatives[i], pool.config)) {
+                    match[c] = i;
+                    break;
+                }
+        }
+    }
+
+    //Çocuk aralığını ikiye bölerek temsilcilerle karşılaştıran görev
+    private class Task extends RecursiveAction {
+
+        private final List<Genome> children;
+        private final Features[] features;
+        private final int[] match;
+        private final Features[] representatives;
+        private final int from;
+        private final int to;
+
+        private Task(final List<Genome> children, final Features[] features,
+                final int[] match, final Features[] representatives,
+                final int from, final int to) {
+            this.children = children;
+            this.features = features;
+            this.match = match;
+            this.representatives = representatives;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= GRAIN) {
+                compare(children, features, match, representatives, from, to);
+                return;
+            }
+            final int middle = (from + to) >>> 1;
+            invokeAll(new Task(children, features, match, representatives,
+                    from, middle),
+                    new Task(children, features, match, representatives,
+                            middle, to));
+        }
+    }
+}
@@ -2,26 +2,34 @@ package flappybirdai;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.random.RandomGenerator;
 
 //Her popülasyonun bilgisini içerir
-public class Species extends Pool{
+public class Species {
+    public final Pool pool;                 //Türün ait olduğu havuz
+    public final int id;                    //Havuzda türü tanıtan, değişmeyen numara (kayıtlara yazılmaz)
     public final List<Genome> genomes = new ArrayList<Genome>();
     public double topFitness = 0.0;         //en iyi uygunluktaki kuş
     public double averageFitness = 0.0;     //Popülasyondaki ortalama uygunluk
     public int staleness = 0;               //Yıpranma
 
-    //Mutasyonlu bir kuşu döndürür
-    public Genome breedChild() {
+    public Species(final Pool pool) {
+        this.pool = pool;
+        id = pool.nextSpeciesId++;
+    }
+
+    //Mutasyonlu bir kuşu döndürür; bütün rastgele kararlar çocuğun akışından çekilir
+    public Genome breedChild(final RandomGenerator rnd) {
         final Genome child;
-        if (rnd.nextDouble() < CROSSOVER) {
+        if (rnd.nextDouble() < pool.config.crossover) {
             final Genome g1 = genomes.get(rnd.nextInt(genomes.size()));
             final Genome g2 = genomes.get(rnd.nextInt(genomes.size()));
             
             //çocuk iki genomun crossover'ına set edildi
-            child = crossover(g1, g2);
+            child = crossover(g1, g2, rnd);
         } else
             child = genomes.get(rnd.nextInt(genomes.size())).clone();
-        child.mutate();
+        child.mutate(rnd);
         return child;
     }
 
@@ -35,23 +43,27 @@ public class Species extends Pool{
 
     
     //Genler arasındaki bağlantılarda crossover
-    public Genome crossover(Genome g1, Genome g2) {
+    public Genome crossover(Genome g1, Genome g2, final RandomGenerator rnd) {
         if (g2.fitness > g1.fitness) {
             final Genome tmp = g1;
             g1 = g2;
             g2 = tmp;
         }
 
-        //2 genin synapslarını (kopyalarını) bulur
-        final Genome child = new Genome();
-        outerloop: for (final Synapse gene1 : g1.genes) {
-            for (final Synapse gene2 : g2.genes)
-                if (gene1.innovation == gene2.innovation)
-                    if (rnd.nextBoolean() && gene2.enabled) {
-                        child.genes.add(gene2.clone());
-                        continue outerloop;
-                    } else
-                        break;
+        //2 genin synapslarını (kopyalarını) bulur. Genler sıralı olduğundan tek geçişte eşleşir
+        final Genome child = new Genome(pool);
+        final List<Synapse> genes2 = g2.genes;
+        int j = 0;
+        for (final Synapse gene1 : g1.genes) {
+            while (j < genes2.size() && genes2.get(j).innovation < gene1.innovation)
+                ++j;
+            if (j < genes2.size() && genes2.get(j).innovation == gene1.innovation) {
+                final Synapse gene2 = genes2.get(j);
+                if (rnd.nextBoolean() && gene2.enabled) {
+                    child.genes.add(gene2.clone());
+                    continue;
+                }
+            }
             child.genes.add(gene1.clone());
         }
 
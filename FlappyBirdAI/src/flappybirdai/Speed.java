@@ -0,0 +1,36 @@
+package flappybirdai;
+
+/*
+The simulation speed of the window. The simulation thread runs with a fixed
+timestep of 1 / ticksPerSecond; UNTHROTTLED runs ticks back to back, so the
+renderer only sees one of many ticks per frame and training runs at full speed.
+
+Penceredeki simülasyon hızı. Simülasyon iş parçacığı 1 / ticksPerSecond sabit
+adımla çalışır; UNTHROTTLED adımları ara vermeden çalıştırır, böylece her karede
+birçok adım ilerler ve eğitim tam hızda sürer.
+*/
+public enum Speed {
+
+    NORMAL(50, "1x"),           //Eski 20 ms bekleme
+    DOUBLE(100, "2x"),
+    FAST(500, "10x"),
+    UNTHROTTLED(0, "max");
+
+    public final int ticksPerSecond;    //0 ise sınırsız
+    public final String label;          //Ekranda gösterilen ad
+
+    Speed(final int ticksPerSecond, final String label) {
+        this.ticksPerSecond = ticksPerSecond;
+        this.label = label;
+    }
+
+    //Bir adımın süresi, sınırsız hızda 0
+    public long period() {
+        return ticksPerSecond == 0 ? 0L : 1000000000L / ticksPerSecond;
+    }
+
+    //Tıklamayla geçilen sonraki hız
+    public Speed next() {
+        return values()[(ordinal() + 1) % values().length];
+    }
+}
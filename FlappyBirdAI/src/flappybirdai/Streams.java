@@ -0,0 +1,74 @@
+package flappybirdai;
+
+import java.util.SplittableRandom;
+
+/*
+The seeded random streams of one training run. Every stream is derived from the
+master seed and its place in the run (what it is used for, the generation, the
+genome or course number) with the SplitMix64 mixing function, so a stream never
+depends on how many numbers another stream has drawn or on which thread got there
+first. Each stream is a SplittableRandom owned by a single thread, so there is no
+shared generator to contend on, and a run is reproduced from its seed alone at
+any thread count.
+
+Bir eğitim çalışmasının tohumlu rastgele sayı akışları. Her akış ana tohumdan ve
+çalışmadaki yerinden (kullanım amacı, jenerasyon, genom ya da parkur numarası)
+SplitMix64 karıştırma fonksiyonuyla türetilir; böylece bir akış başka bir akışın
+kaç sayı çektiğine ya da hangi iş parçacığının önce geldiğine bağlı değildir. Her
+akış tek bir iş parçacığının kullandığı bir SplittableRandom'dır; paylaşılan ve
+üzerinde yarışılan bir üreteç yoktur ve bir çalışma, iş parçacığı sayısından
+bağımsız olarak sadece tohumundan yeniden üretilir.
+*/
+public final class Streams {
+
+    //Akışların kullanım alanları
+    private static final long BREEDING = 1;     //Jenerasyonun genom dışı kararları
+    private static final long GENOME = 2;       //Bir çocuğun çaprazlama ve mutasyonları
+    private static final long COURSE = 3;       //Bir parkurun boru yükseklikleri
+    private static final long ISLAND = 4;       //Bir adanın ana tohumu
+
+    private static final long GOLDEN = 0x9e3779b97f4a7c15L;
+
+    public final long seed;                     //Ana tohum
+
+    public Streams(final long seed) {
+        this.seed = seed;
+    }
+
+    //Rastgele bir ana tohum; çalışmayı tekrarlamak için yazdırılmalıdır
+    public static long randomSeed() {
+        return new SplittableRandom().nextLong();
+    }
+
+    //SplitMix64'ün karıştırma fonksiyonu
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    //Ana tohumdan ve akışın yerinden akışın tohumu
+    private long key(final long use, final long a, final long b) {
+        return mix(mix(mix(seed + use * GOLDEN) + a * GOLDEN) + b * GOLDEN);
+    }
+
+    //Jenerasyonu oluştururken çocuğa tür seçmek gibi genom dışı kararlar
+    public SplittableRandom breeding(final int generation) {
+        return new SplittableRandom(key(BREEDING, generation, 0));
+    }
+
+    //Jenerasyonun index. çocuğunun çaprazlama ve mutasyonları
+    public SplittableRandom genome(final int generation, final int index) {
+        return new SplittableRandom(key(GENOME, generation, index));
+    }
+
+    //Jenerasyonun parkuru; canlı oyunda 0, bağımsız parkurlarda parkur numarası
+    public SplittableRandom course(final int generation, final int episode) {
+        return new SplittableRandom(key(COURSE, generation, episode));
+    }
+
+    //Ada modelinde i. adanın akışları
+    public Streams island(final int island) {
+        return new Streams(key(ISLAND, island, 0));
+    }
+}
@@ -0,0 +1,257 @@
+package flappybirdai;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/*
+Live statistics and controls of a training run over JMX. The simulation thread
+publishes an immutable Stats copy through a volatile field (at most every
+PUBLISH_PERIOD) and calls service() between ticks, where queued operations run
+and where it waits while paused. A checkpoint taken during a generation resumes
+at the start of that generation. JMX threads only read the copy and enqueue
+requests, so neither side ever blocks the other. The window and the headless
+trainer provide the run specific parts through Host.
+
+Bağlantı: jconsole ile yerel süreç seçilir; ya da jcmd <pid> ManagementAgent.start
+ile uzak bağlantı açılır.
+
+Bir eğitim çalışmasının JMX üzerinden canlı istatistikleri ve kontrolleri.
+Simülasyon iş parçacığı değişmez bir Stats kopyasını volatile bir alanla yayınlar
+(en fazla PUBLISH_PERIOD'da bir) ve adımlar arasında service() çağırır; sıradaki
+işlemler orada çalışır ve duraklatıldığında orada beklenir. Jenerasyonun ortasında
+alınan bir kayıt, o jenerasyonun başından devam eder. JMX iş parçacıkları
+sadece kopyayı okur ve istek bırakır; iki taraf da birbirini hiç bekletmez.
+*/
+public final class Training implements TrainingMXBean {
+
+    //Pencerenin ya da başsız eğiticinin sağladığı kısımlar
+    public interface Host {
+
+        //Hız herhangi bir iş parçacığından okunup değiştirilebilmelidir
+        int getTickRate();
+
+        //Desteklenmeyen bir hızda IllegalArgumentException atar
+        void setTickRate(int ticksPerSecond);
+
+        //Simülasyon iş parçacığında, adımlar arasında çağrılır
+        void checkpoint(Path file) throws IOException;
+
+        //Şimdiye kadarki en iyi genom, yoksa null; simülasyon iş parçacığında çağrılır
+        Genome champion();
+    }
+
+    public static final String NAME = "flappybirdai:type=Training";
+    private static final long PUBLISH_PERIOD = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long PAUSE_POLL = TimeUnit.MILLISECONDS.toNanos(50);
+
+    //Simülasyonun yayınladığı değişmez istatistikler
+    private static final class Stats {
+        final long time;
+        final int generation;
+        final double maxFitness;
+        final int species;
+        final int alive;
+        final long ticks;
+        final double ticksPerSecond;
+        final double meanGenomeSize;
+
+        Stats(final long time, final int generation, final double maxFitness,
+                final int species, final int alive, final long ticks,
+                final double ticksPerSecond, final double meanGenomeSize) {
+            this.time = time;
+            this.generation = generation;
+            this.maxFitness = maxFitness;
+            this.species = species;
+            this.alive = alive;
+            this.ticks = ticks;
+            this.ticksPerSecond = ticksPerSecond;
+            this.meanGenomeSize = meanGenomeSize;
+        }
+    }
+
+    private final Host host;
+    private volatile Stats stats = new Stats(System.nanoTime(), 0, 0.0, 0, 0,
+            0L, 0.0, 0.0);
+    private volatile boolean paused;
+    private volatile String lastResult = "";
+    private final Queue<Runnable> requests = new ConcurrentLinkedQueue<Runnable>();
+
+    public Training(final Host host) {
+        this.host = host;
+    }
+
+    //MBean'i platform sunucusuna kaydeder; başarısız olursa eğitim yine de sürer
+    public void register() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this,
+                    new ObjectName(NAME));
+        } catch (final JMException e) {
+            System.err.println("JMX kaydı yapılamadı: " + e);
+        }
+    }
+
+    /*
+    İstatistikleri yayınlar; force false ise son yayından beri PUBLISH_PERIOD
+    geçmediyse hiçbir şey yapmaz. Simülasyon iş parçacığında çağrılır.
+    */
+    public void publish(final Pool pool, final int alive, final long ticks,
+            final boolean force) {
+        final Stats last = stats;
+        final long now = System.nanoTime();
+        if (!force && now - last.time < PUBLISH_PERIOD)
+            return;
+
+        //Ortalama genom boyu jenerasyon başına bir kez hesaplanır
+        double meanGenomeSize = last.meanGenomeSize;
+        if (pool.generation != last.generation || last.meanGenomeSize == 0.0) {
+            long genes = 0;
+            int genomes = 0;
+            for (final Species species : pool.species)
+                for (final Genome genome : species.genomes) {
+                    genes += genome.genes.size();
+                    ++genomes;
+                }
+            meanGenomeSize = genomes == 0 ? 0.0 : (double) genes / genomes;
+        }
+        final double seconds = (now - last.time) / 1e9;
+        final double ticksPerSecond = seconds <= 0.0 ? last.ticksPerSecond
+                : (ticks - last.ticks) / seconds;
+        stats = new Stats(now, pool.generation, pool.maxFitness,
+                pool.species.size(), alive, ticks, ticksPerSecond,
+                meanGenomeSize);
+    }
+
+    /*
+    Sıradaki işlemleri çalıştırır ve duraklatıldıysa devam ettirilene kadar bekler.
+    Simülasyon iş parçacığında, adımlar ya da jenerasyonlar arasında çağrılır.
+    */
+    public void service() {
+        run();
+        while (paused) {
+            LockSupport.parkNanos(PAUSE_POLL);
+            run();
+        }
+    }
+
+    private void run() {
+        Runnable request;
+        while ((request = requests.poll()) != null)
+            request.run();
+    }
+
+    @Override
+    public int getGeneration() {
+        return stats.generation;
+    }
+
+    @Override
+    public double getMaxFitness() {
+        return stats.maxFitness;
+    }
+
+    @Override
+    public int getSpeciesCount() {
+        return stats.species;
+    }
+
+    @Override
+    public int getAliveBirds() {
+        return stats.alive;
+    }
+
+    @Override
+    public long getTotalTicks() {
+        return stats.ticks;
+    }
+
+    @Override
+    public double getTicksPerSecond() {
+        return stats.ticksPerSecond;
+    }
+
+    @Override
+    public double getMeanGenomeSize() {
+        return stats.meanGenomeSize;
+    }
+
+    @Override
+    public int getTickRate() {
+        return host.getTickRate();
+    }
+
+    @Override
+    public void setTickRate(final int ticksPerSecond) {
+        if (ticksPerSecond < 0)
+            throw new IllegalArgumentException("ticksPerSecond < 0");
+        host.setTickRate(ticksPerSecond);
+    }
+
+    @Override
+    public boolean isPaused() {
+        return paused;
+    }
+
+    @Override
+    public void pause() {
+        paused = true;
+    }
+
+    @Override
+    public void resume() {
+        paused = false;
+    }
+
+    @Override
+    public String checkpoint(final String file) {
+        final Path path = Paths.get(file);
+        requests.add(new Runnable() {
+
+            @Override
+            public void run() {
+                try {
+                    host.checkpoint(path);
+                    lastResult = "Checkpoint written to " + path;
+                } catch (final IOException e) {
+                    lastResult = "Checkpoint failed: " + e;
+                }
+            }
+        });
+        return "Checkpoint to " + path + " requested";
+    }
+
+    @Override
+    public String dumpChampion(final String file) {
+        final Path path = Paths.get(file);
+        requests.add(new Runnable() {
+
+            @Override
+            public void run() {
+                final Genome champion = host.champion();
+                if (champion == null) {
+                    lastResult = "No champion to dump";
+                    return;
+                }
+                try {
+                    Champion.export(champion, path);
+                    lastResult = "Champion written to " + path;
+                } catch (final IOException e) {
+                    lastResult = "Champion dump failed: " + e;
+                }
+            }
+        });
+        return "Champion dump to " + path + " requested";
+    }
+
+    @Override
+    public String getLastResult() {
+        return lastResult;
+    }
+}
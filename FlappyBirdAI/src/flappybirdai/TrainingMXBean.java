@@ -0,0 +1,53 @@
+package flappybirdai;
+
+/*
+The JMX management interface of a training run, registered as
+flappybirdai:type=Training. Attributes are read from a copy the simulation
+publishes, so reading them never waits for the simulation. Checkpoints and
+champion dumps are queued and run by the simulation thread after the current
+tick (or generation, when courses run in parallel); their outcome is reported in
+LastResult.
+
+Bir eğitim çalışmasının JMX yönetim arayüzü. Öznitelikler simülasyonun
+yayınladığı kopyadan okunur, okumak simülasyonu hiç bekletmez. Kayıt ve şampiyon
+yazma işlemleri sıraya alınır ve simülasyon iş parçacığı tarafından mevcut adımdan
+(parkurlar paralel oynanıyorsa jenerasyondan) sonra çalıştırılır; sonuçları
+LastResult'ta bildirilir.
+*/
+public interface TrainingMXBean {
+
+    int getGeneration();
+
+    double getMaxFitness();
+
+    int getSpeciesCount();
+
+    int getAliveBirds();
+
+    long getTotalTicks();
+
+    double getTicksPerSecond();
+
+    //Genom başına ortalama gen sayısı
+    double getMeanGenomeSize();
+
+    //Saniyedeki adım sınırı, 0 ise sınırsız
+    int getTickRate();
+
+    void setTickRate(int ticksPerSecond);
+
+    boolean isPaused();
+
+    void pause();
+
+    void resume();
+
+    //Havuzu verilen dosyaya kaydeder (HeadlessTrainer --resume ile devam edilir)
+    String checkpoint(String file);
+
+    //Şimdiye kadarki en iyi genomu Controller'ın okuduğu biçimde dosyaya yazar
+    String dumpChampion(String file);
+
+    //Son tamamlanan işlemin sonucu
+    String getLastResult();
+}
@@ -0,0 +1,80 @@
+package flappybirdai;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/*
+The batch kernel on the Vector API. Loaded by BatchEvaluator through reflection,
+so the rest of the game runs without the jdk.incubator.vector module. The lanes
+that do not fill a whole vector are left to the scalar kernel. With
+Activation.EXACT only the sums are vectorized; the vector exp is not
+bit-identical to Math.exp, so the sigmoid is applied per lane.
+
+Vector API ile toplu değerlendirme çekirdeği. BatchEvaluator tarafından yansıma
+ile yüklenir, böylece oyunun geri kalanı jdk.incubator.vector modülü olmadan da
+çalışır. Tam bir vektörü doldurmayan kuşlar skaler çekirdeğe bırakılır.
+Activation.EXACT ile sadece toplamlar vektörle hesaplanır; vektör exp'i Math.exp
+ile bit düzeyinde aynı olmadığından sigmoid her kuş için ayrı uygulanır.
+*/
+class VectorKernel implements BatchEvaluator.Kernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    private final BatchEvaluator.Kernel tail = new BatchEvaluator.ScalarKernel();
+
+    VectorKernel() {
+        //Tek elemanlı vektörlerde skaler çekirdek daha hızlıdır
+        if (SPECIES.length() < 2)
+            throw new IllegalStateException("no SIMD support");
+    }
+
+    @Override
+    public void evaluate(final BatchEvaluator.Group group, final int from,
+            final int to) {
+        //Tablo okuması vektörleştirilmez
+        if (group.activation == Activation.TABLE) {
+            tail.evaluate(group, from, to);
+            return;
+        }
+
+        final boolean exact = group.activation == Activation.EXACT;
+        final int lanes = group.lanes;
+        final int[] order = group.order;
+        final int[] start = group.start;
+        final int[] sources = group.sources;
+        final double[] weights = group.weights;
+        final double[] state = group.state;
+        final int step = SPECIES.length();
+        final int bound = from + SPECIES.loopBound(to - from);
+
+        for (int j = from; j < bound; j += step)
+            for (int i = 0; i < order.length; ++i) {
+                DoubleVector sum = DoubleVector.zero(SPECIES);
+                for (int l = start[i]; l < start[i + 1]; ++l)
+                    sum = sum.add(DoubleVector.fromArray(SPECIES, weights, l * lanes + j)
+                            .mul(DoubleVector.fromArray(SPECIES, state, sources[l] * lanes + j)));
+                final int target = order[i] * lanes + j;
+                if (exact) {
+                    //Vektör exp'i Math.exp ile bit düzeyinde aynı değildir, sigmoid her kuş için skaler hesaplanır
+                    sum.intoArray(state, target);
+                    for (int k = target; k < target + step; ++k)
+                        state[k] = Neuron.sigmoid(state[k]);
+                } else
+                    rational(sum).intoArray(state, target);
+            }
+
+        if (bound < to)
+            tail.evaluate(group, bound, to);
+    }
+
+    //Neuron.sigmoidRational ile aynı işlemler, aynı sırada
+    private static DoubleVector rational(final DoubleVector x) {
+        final DoubleVector y = x.mul(2.45);
+        final DoubleVector y2 = y.mul(y);
+        final DoubleVector numerator = y.mul(y2.add(378.0).mul(y2).add(17325.0)
+                .mul(y2).add(135135.0));
+        final DoubleVector denominator = y2.mul(28.0).add(3150.0).mul(y2)
+                .add(62370.0).mul(y2).add(135135.0);
+        return numerator.div(denominator).min(1.0).max(-1.0);
+    }
+}
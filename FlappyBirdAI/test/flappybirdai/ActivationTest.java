@@ -0,0 +1,130 @@
+package flappybirdai;
+
+import static flappybirdai.Pool.INPUTS;
+import static flappybirdai.Pool.OUTPUTS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.Test;
+
+/*
+The approximate activations against EXACT. Each must stay within its stated
+maxError. Inside a network the error compounds: the sigmoid's slope is at most
+2.45, so a neuron can be off by maxError plus 2.45 times the weighted error of
+its sources, and recurrent links carry the error into the next tick. The genomes
+of one seed are run on the same inputs under every mode; every output must stay
+within that bound, a flap decision may only differ when the exact output is
+within it of 0.5, and on this seed at most one decision in 10000 differs.
+
+Yaklaşık aktivasyonlar EXACT ile karşılaştırılır. Her biri belirtilen maxError
+içinde kalmalıdır. Ağın içinde hata birikir: sigmoid'in eğimi en fazla 2.45'tir,
+bir nöron maxError artı kaynaklarının ağırlıklı hatasının 2.45 katı kadar
+sapabilir ve döngüsel bağlantılar hatayı sonraki adıma taşır. Bir tohumun
+genomları bütün modlarda aynı girdilerle çalıştırılır; her çıktı bu sınır içinde
+kalmalı, zıplama kararı sadece kesin çıktı 0.5'e bu sınır kadar yakınsa değişebilir
+ve bu tohumda en fazla 10000 karardan biri farklıdır.
+*/
+public class ActivationTest {
+
+    private static final double SLOPE = 2.45;       //Sigmoid'in en büyük eğimi: 4.9 * 2 / 4
+    private static final double ROUNDING = 1e-12;   //Toplamlardaki yuvarlama payı
+    private static final int TICKS = 1000;
+
+    @Test
+    public void maxErrorHoldsOverSampledInputs() {
+        final SplittableRandom rnd = new SplittableRandom(1);
+        for (final Activation activation : Activation.values()) {
+            double worst = 0.0;
+            //Tablonun düğümleri ve aralarının hepsini yakalayan sık bir tarama ve rastgele noktalar
+            for (double x = -12.0; x <= 12.0; x += 1.0 / 4096)
+                worst = Math.max(worst, Math.abs(activation.apply(x) - Neuron.sigmoid(x)));
+            for (int i = 0; i < 200000; ++i) {
+                final double x = rnd.nextDouble(-50.0, 50.0);
+                worst = Math.max(worst, Math.abs(activation.apply(x) - Neuron.sigmoid(x)));
+            }
+            assertTrue(activation + ": " + worst, worst <= activation.maxError);
+        }
+    }
+
+    //Rastgele uygunluklarla birkaç jenerasyon evrilmiş bir havuzun genomları
+    private static List<Genome> genomes(final long seed) {
+        final Config config = new Config();
+        config.population = 150;
+        final Pool pool = new Pool(config, new Streams(seed));
+        pool.initializePool();
+        final SplittableRandom rnd = new SplittableRandom(seed);
+        for (int g = 0; g < 15; ++g) {
+            for (final Species species : pool.species)
+                for (final Genome genome : species.genomes)
+                    genome.fitness = rnd.nextInt(1000);
+            pool.newGeneration();
+        }
+        final List<Genome> genomes = new ArrayList<Genome>();
+        for (final Species species : pool.species)
+            genomes.addAll(species.genomes);
+        return genomes;
+    }
+
+    @Test
+    public void sameSeedFlapDecisions() {
+        final List<Genome> genomes = genomes(4);
+        final double[] input = new double[INPUTS];
+        final double[] exactOutput = new double[OUTPUTS];
+        final double[] output = new double[OUTPUTS];
+
+        for (final Activation activation : Activation.values()) {
+            int decisions = 0;
+            int differ = 0;
+            for (final Genome genome : genomes) {
+                final Network exact = new Network(genome.genes, Activation.EXACT);
+                final Network network = new Network(genome.genes, activation);
+                final double[] exactState = exact.newState();
+                final double[] state = network.newState();
+                //error[n]: n. nöronun bu adımdaki en büyük sapması
+                final double[] error = new double[network.neurons];
+
+                //Her genom aynı girdi dizisini görür
+                final SplittableRandom rnd = new SplittableRandom(4);
+                for (int tick = 0; tick < TICKS; ++tick) {
+                    input[0] = rnd.nextDouble();
+                    input[1] = rnd.nextDouble(0.2, 0.8);
+                    input[2] = rnd.nextDouble(-0.1, 1.1);
+                    input[3] = 1.0;
+                    exact.evaluate(exactState, input, exactOutput);
+                    network.evaluate(state, input, output);
+                    propagate(network, activation.maxError, error);
+
+                    final double bound = error[INPUTS] + ROUNDING;
+                    assertTrue(activation + " tick " + tick,
+                            Math.abs(output[0] - exactOutput[0]) <= bound);
+                    ++decisions;
+                    if (output[0] > 0.5 != exactOutput[0] > 0.5) {
+                        assertTrue(activation + " tick " + tick + ": decision differs "
+                                + Math.abs(exactOutput[0] - 0.5) + " from the threshold",
+                                Math.abs(exactOutput[0] - 0.5) <= bound);
+                        ++differ;
+                    }
+                }
+            }
+            if (activation == Activation.EXACT)
+                assertEquals(0, differ);
+            assertTrue(activation + ": " + differ + " of " + decisions + " decisions differ",
+                    differ * 10000 <= decisions);
+        }
+    }
+
+    //Hata sınırını ağın hesaplama sırasıyla yayar; henüz hesaplanmamış kaynaklar önceki adımın sınırını verir
+    private static void propagate(final Network network, final double maxError,
+            final double[] error) {
+        for (int i = 0; i < network.order.length; ++i) {
+            double sum = 0.0;
+            for (int l = network.start[i]; l < network.start[i + 1]; ++l)
+                sum += Math.abs(network.weights[l]) * error[network.sources[l]];
+            //Nöron değerleri [-1, 1] aralığındadır
+            error[network.order[i]] = Math.min(2.0, maxError + SLOPE * sum);
+        }
+    }
+}
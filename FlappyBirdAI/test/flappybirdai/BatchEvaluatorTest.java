@@ -0,0 +1,164 @@
+package flappybirdai;
+
+import static flappybirdai.Pool.INPUTS;
+import static flappybirdai.Pool.OUTPUTS;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.Test;
+
+/*
+The batch kernels against Network.evaluate. Every neuron value of every bird
+must be bit-identical, for every activation and including the lanes left over
+after the last whole vector. The vector exp only differs from Math.exp once the
+JIT has compiled the kernel, so each case runs for many ticks. A generation of an
+evolved population, where most birds are evaluated one by one and groups are
+dissolved as their birds die, must play exactly as without batching.
+
+Toplu değerlendirme çekirdekleri Network.evaluate ile karşılaştırılır. Her kuşun
+her nöron değeri, her aktivasyonda ve son tam vektörden artan kuşlar da dahil,
+bit düzeyinde aynı olmalıdır. Vektör exp'i Math.exp'ten ancak JIT çekirdeği
+derledikten sonra ayrıldığı için her durum çok sayıda adım çalıştırılır.
+Kuşların çoğunun tek tek değerlendirildiği ve kuşları öldükçe grupların
+dağıtıldığı evrilmiş bir popülasyonun bir jenerasyonu toplu değerlendirme
+olmadan oynandığı gibi oynanmalıdır.
+*/
+public class BatchEvaluatorTest {
+
+    private static final int BIRDS = 37;        //Vektör uzunluğunun katı değil
+    private static final int TICKS = 1000;
+    private static final int GENERATIONS = 5;
+
+    //Döngüsel bağlantılar da içerebilen rastgele bir topoloji
+    private static Genome topology(final Pool pool, final SplittableRandom rnd) {
+        final Genome base = new Genome(pool);
+        base.maxNeuron = INPUTS;
+        for (int i = 0; i < 30; ++i)
+            base.mutateLink(i % 3 == 0, rnd);
+        for (int i = 0; i < 6; ++i) {
+            base.mutateNode(rnd);
+            base.mutateLink(false, rnd);
+        }
+        return base;
+    }
+
+    //Aynı topolojide, farklı ağırlıklı kuşlardan oluşan bir oyun
+    private static Game game(final Activation activation, final long seed) {
+        final Config config = new Config();
+        config.activation = activation;
+        config.compile = false;
+        final Pool pool = new Pool(config, new Streams(seed));
+        final SplittableRandom rnd = new SplittableRandom(seed);
+        final Genome base = topology(pool, rnd);
+
+        final Species species = new Species(pool);
+        for (int b = 0; b < BIRDS; ++b) {
+            final Genome genome = base.clone();
+            genome.mutatePoint(rnd);
+            species.genomes.add(genome);
+        }
+        pool.species.add(species);
+
+        final Game game = new Game(pool);
+        game.initializeGame();
+        return game;
+    }
+
+    private static void assertKernelMatchesNetworks(final BatchEvaluator.Kernel kernel,
+            final Activation activation, final long seed) {
+        final Game game = game(activation, seed);
+        final List<Integer> birds = new ArrayList<Integer>();
+        for (int i = 0; i < game.count; ++i)
+            birds.add(i);
+        final BatchEvaluator.Group group = new BatchEvaluator.Group(game,
+                game.genomes[0].network, birds);
+        final int lanes = group.lanes;
+
+        final SplittableRandom rnd = new SplittableRandom(seed);
+        final double[] input = new double[INPUTS];
+        final double[] output = new double[OUTPUTS];
+        for (int tick = 0; tick < TICKS; ++tick) {
+            for (int j = 0; j < lanes; ++j) {
+                for (int n = 0; n < INPUTS; ++n) {
+                    input[n] = rnd.nextDouble(-1.0, 1.5);
+                    group.state[n * lanes + j] = input[n];
+                }
+                game.genomes[j].network.evaluate(game.states[j], input, output);
+            }
+            kernel.evaluate(group, 0, lanes);
+
+            for (int j = 0; j < lanes; ++j)
+                for (int n = 0; n < group.neurons; ++n)
+                    assertEquals(activation + " tick " + tick + " bird " + j + " neuron " + n,
+                            Double.doubleToRawLongBits(game.states[j][n]),
+                            Double.doubleToRawLongBits(group.state[n * lanes + j]));
+        }
+    }
+
+    @Test
+    public void kernelsMatchNetworkEvaluate() {
+        //KERNEL, jdk.incubator.vector modülü varsa vektör çekirdeğidir
+        for (final BatchEvaluator.Kernel kernel : new BatchEvaluator.Kernel[] {
+                BatchEvaluator.KERNEL, new BatchEvaluator.ScalarKernel() })
+            for (final Activation activation : Activation.values())
+                for (long seed = 1; seed <= 10; ++seed)
+                    assertKernelMatchesNetworks(kernel, activation, seed);
+    }
+
+    //Jenerasyonu bitene kadar oynar
+    private static void play(final Game game) {
+        game.initializeGame();
+        do {
+            game.eval();
+            game.update();
+        } while (!game.learn());
+    }
+
+    //Birkaç jenerasyon oynanarak evrilmiş bir havuza en iyi kuşun klonlarından bir tür ekler ve bir jenerasyon oynar
+    private static Game evolved(final boolean batch) {
+        final Config config = new Config();
+        config.population = 300;
+        config.generationTicks = 3000;
+        config.compile = false;
+        config.batch = batch;
+        final Pool pool = new Pool(config, new Streams(5));
+        pool.initializePool();
+        final Game game = new Game(pool);
+        for (int g = 0; g < GENERATIONS; ++g) {
+            play(game);
+            pool.newGeneration();
+        }
+        play(game);
+        Genome best = game.genomes[0];
+        for (int i = 1; i < game.count; ++i)
+            if (game.genomes[i].fitness > best.fitness)
+                best = game.genomes[i];
+
+        //Kuşları farklı adımlarda ölen geniş bir grup: küçültülür ve sonunda dağıtılır
+        final SplittableRandom rnd = new SplittableRandom(5);
+        final Species clones = new Species(pool);
+        for (int b = 0; b < BIRDS; ++b) {
+            final Genome genome = best.clone();
+            genome.mutatePoint(rnd);
+            clones.genomes.add(genome);
+        }
+        pool.species.add(clones);
+        play(game);
+        return game;
+    }
+
+    @Test
+    public void evolvedGenerationPlaysAsWithoutBatching() {
+        final Game scalar = evolved(false);
+        final Game batch = evolved(true);
+        assertEquals(scalar.ticks, batch.ticks);
+        assertEquals(scalar.count, batch.count);
+        for (int i = 0; i < scalar.count; ++i) {
+            assertEquals("bird " + i, scalar.flaps[i], batch.flaps[i]);
+            assertEquals("bird " + i, scalar.genomes[i].fitness,
+                    batch.genomes[i].fitness, 0.0);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package flappybirdai;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import org.junit.Test;
+
+/*
+Decoding of checkpoint files, which come from the user. A valid checkpoint must
+round-trip; a truncated or corrupt one, one of another version, or one whose
+genes are not sorted by unique known innovation numbers must be rejected with an
+IOException.
+
+Kullanıcıdan gelen kayıt dosyalarının okunması. Geçerli bir kayıt aynen geri
+okunmalı; kesik ya da bozuk bir kayıt, başka bir sürümün kaydı ya da genleri
+tekil ve bilinen innovation numaralarıyla sıralı olmayan bir kayıt IOException
+ile reddedilmelidir.
+*/
+public class CheckpointTest {
+
+    //Birkaç jenerasyon evrilmiş bir havuz
+    private static Pool pool() {
+        final Config config = new Config();
+        config.population = 20;
+        final Pool pool = new Pool(config, new Streams(11));
+        pool.initializePool();
+        final SplittableRandom rnd = new SplittableRandom(11);
+        for (int g = 0; g < 3; ++g) {
+            for (final Species species : pool.species)
+                for (final Genome genome : species.genomes)
+                    genome.fitness = rnd.nextInt(500);
+            pool.newGeneration();
+        }
+        return pool;
+    }
+
+    private static byte[] bytes(final ByteBuffer buffer) {
+        final byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static void assertRejected(final byte[] bytes) {
+        try {
+            Checkpoint.decode(ByteBuffer.wrap(bytes));
+            fail("corrupt checkpoint accepted");
+        } catch (final IOException e) {
+            //Beklenen
+        }
+    }
+
+    @Test
+    public void roundTrip() throws IOException {
+        final Pool pool = pool();
+        pool.config.timeout = 20;
+        pool.config.activation = Activation.RATIONAL;
+        final byte[] bytes = bytes(Checkpoint.encode(pool));
+        final Pool restored = Checkpoint.decode(ByteBuffer.wrap(bytes)).pool;
+        assertEquals(20, restored.config.timeout);
+        assertEquals(Activation.RATIONAL, restored.config.activation);
+        assertEquals(pool.streams.seed, restored.streams.seed);
+        assertEquals(pool.generation, restored.generation);
+        assertEquals(pool.innovation, restored.innovation);
+        assertEquals(pool.species.size(), restored.species.size());
+        //Yeniden yazılan kayıt aynı baytları verir
+        assertTrue(Arrays.equals(bytes, bytes(Checkpoint.encode(restored))));
+
+        //Başka bir sürümün kaydı okunmaz
+        ByteBuffer.wrap(bytes).putInt(4, 3);
+        assertRejected(bytes);
+    }
+
+    @Test
+    public void truncatedCheckpointsAreRejected() {
+        final byte[] bytes = bytes(Checkpoint.encode(pool()));
+        for (int length = 0; length < bytes.length; length += 7)
+            assertRejected(Arrays.copyOf(bytes, length));
+    }
+
+    @Test
+    public void corruptCountsAreRejected() {
+        final byte[] bytes = bytes(Checkpoint.encode(pool()));
+        //Tür sayısı: başlık, ayarlar, sayaçlar ve tohumdan sonra
+        final int species = 4 + 4 + 3 * 4 + 12 * 8 + 4 + 4 + 4 + 8 + 8;
+        for (final int count : new int[] { -1, Integer.MIN_VALUE, Integer.MAX_VALUE, 1 << 20 }) {
+            final byte[] corrupt = bytes.clone();
+            ByteBuffer.wrap(corrupt).putInt(species, count);
+            assertRejected(corrupt);
+        }
+
+        //Rastgele bayt bozulmaları ya okunur ya da IOException verir, başka bir şey atmaz
+        final SplittableRandom rnd = new SplittableRandom(12);
+        for (int round = 0; round < 2000; ++round) {
+            final byte[] corrupt = bytes.clone();
+            for (int i = 0; i < 4; ++i)
+                corrupt[8 + rnd.nextInt(corrupt.length - 8)] = (byte) rnd.nextInt(256);
+            try {
+                Checkpoint.decode(ByteBuffer.wrap(corrupt));
+            } catch (final IOException e) {
+                //Beklenen
+            }
+        }
+    }
+
+    //Tek türde, innovation numaraları 2 ve 3 olan iki genli tek genomluk bir havuz
+    private static byte[] twoGenes() {
+        final Pool pool = new Pool(new Config(), new Streams(13));
+        pool.innovation = 3;
+        final Genome genome = new Genome(pool);
+        for (int i = 0; i < 2; ++i) {
+            final Synapse gene = new Synapse();
+            gene.input = i;
+            gene.output = Pool.INPUTS;
+            gene.weight = 0.5;
+            gene.innovation = 2 + i;
+            genome.addGene(gene);
+        }
+        final Species species = new Species(pool);
+        species.genomes.add(genome);
+        pool.species.add(species);
+        return bytes(Checkpoint.encode(pool));
+    }
+
+    @Test
+    public void unsortedOrUnknownInnovationsAreRejected() throws IOException {
+        //İlk genin innovation alanı: başlık, ayarlar, sayaçlar, tohum, tür ve genom alanlarından sonra
+        final int first = 4 + 4 + 3 * 4 + 12 * 8 + 4 + 4 + 4 + 8 + 8 + 4
+                + 8 + 8 + 4 + 4 + 8 + 4 + 4 + 7 * 8 + 4 + 4 + 4 + 8 + 1;
+        final int second = first + 4 + 4 + 4 + 8 + 1;
+        final byte[] bytes = twoGenes();
+        assertEquals(2, ByteBuffer.wrap(bytes).getInt(first));
+        assertEquals(3, ByteBuffer.wrap(bytes).getInt(second));
+        Checkpoint.decode(ByteBuffer.wrap(bytes));
+
+        //Ters sıra, tekrar, sıfır ve havuzun sayacından büyük numara
+        for (final int[] innovations : new int[][] { { 3, 2 }, { 2, 2 }, { 0, 3 }, { 2, 4 } }) {
+            final byte[] corrupt = bytes.clone();
+            ByteBuffer.wrap(corrupt).putInt(first, innovations[0]).putInt(second, innovations[1]);
+            assertRejected(corrupt);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package flappybirdai;
+
+import static flappybirdai.Game.BIRD_HEIGHT;
+import static flappybirdai.Game.BIRD_WIDTH;
+import static flappybirdai.Game.HEIGHT;
+import static flappybirdai.Game.TUBE_APERTURE;
+import static flappybirdai.Game.TUBE_HEIGHT;
+import static flappybirdai.Game.TUBE_WIDTH;
+import static flappybirdai.Game.WIDTH;
+import static org.junit.Assert.assertEquals;
+
+import java.awt.Polygon;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.GeneralPath;
+import java.awt.geom.Rectangle2D;
+import java.util.SplittableRandom;
+import org.junit.Test;
+
+/*
+Collision against the AWT test it replaces: the bounds polygon as a GeneralPath,
+transformed with an AffineTransform and tested with Shape.intersects on both
+rectangles of every tube. Random birds and tubes are checked, and tubes whose
+edges or corners lie exactly on, or one ulp away from, a vertex of the polygon.
+
+Collision, yerini aldığı AWT testiyle karşılaştırılır: sınır çokgeni GeneralPath
+olarak AffineTransform ile dönüştürülür ve her borunun iki dikdörtgeniyle
+Shape.intersects çağrılır. Rastgele kuşlar ve borular ile kenarları ya da köşeleri
+çokgenin bir köşesine tam denk gelen ya da ondan bir ulp uzakta olan borular
+denenir.
+*/
+public class CollisionTest {
+
+    private static final Polygon BOUNDS = new Polygon(Game.XS, Game.YS, Game.XS.length);
+    private static final int LEFT = WIDTH / 3 - BIRD_HEIGHT / 2;
+
+    private final Game game = new Game(new Pool(new Config(), new Streams(1)));
+    private final Collision collision = new Collision(Game.XS, Game.YS);
+
+    //Özgün Game.update çarpışma testi
+    private boolean oracle(final double angle, final double height) {
+        final AffineTransform at = new AffineTransform();
+        at.translate(LEFT, HEIGHT - height);
+        at.rotate(-angle / 180.0 * Math.PI, BIRD_WIDTH / 2, BIRD_HEIGHT / 2);
+        at.translate(0, 52);
+        final Shape bounds = new GeneralPath(BOUNDS).createTransformedShape(at);
+        for (int i = 0; i < game.tubeCount; ++i) {
+            final int t = game.tube(i);
+            final Rectangle2D ceilTube = new Rectangle2D.Double(game.tubePosition[t],
+                    HEIGHT - game.tubeHeight[t] - TUBE_APERTURE - TUBE_HEIGHT,
+                    TUBE_WIDTH, TUBE_HEIGHT);
+            final Rectangle2D floorTube = new Rectangle2D.Double(game.tubePosition[t],
+                    HEIGHT - game.tubeHeight[t], TUBE_WIDTH, TUBE_HEIGHT);
+            if (bounds.intersects(ceilTube) || bounds.intersects(floorTube))
+                return true;
+        }
+        return false;
+    }
+
+    private void tubes(final double... positionAndHeight) {
+        game.firstTube = 0;
+        game.tubeCount = positionAndHeight.length / 2;
+        for (int i = 0; i < game.tubeCount; ++i) {
+            game.tubePosition[i] = positionAndHeight[2 * i];
+            game.tubeHeight[i] = positionAndHeight[2 * i + 1];
+        }
+        collision.prepare(game);
+    }
+
+    private void assertSame(final double angle, final double height) {
+        assertEquals("angle " + angle + " height " + height + " tubes "
+                + game.tubePosition[0] + "/" + game.tubeHeight[0],
+                oracle(angle, height), collision.hits(angle, height));
+    }
+
+    @Test
+    public void randomBirdsAndTubes() {
+        final SplittableRandom rnd = new SplittableRandom(1);
+        for (int round = 0; round < 20000; ++round) {
+            final int count = rnd.nextInt(4);
+            final double[] tubes = new double[2 * count];
+            for (int i = 0; i < count; ++i) {
+                tubes[2 * i] = rnd.nextDouble(LEFT - 200.0, LEFT + 200.0);
+                tubes[2 * i + 1] = rnd.nextDouble(50.0, 450.0);
+            }
+            tubes(tubes);
+            for (int bird = 0; bird < 20; ++bird) {
+                //Oyundaki gibi tekrar eden açılar ve tablonun boşaltılması için çok sayıda farklı açı
+                final double angle = rnd.nextBoolean() ? rnd.nextInt(-90, 91)
+                        : rnd.nextDouble(-180.0, 180.0);
+                assertSame(angle, rnd.nextDouble(-50.0, HEIGHT + 50.0));
+            }
+        }
+    }
+
+    @Test
+    public void edgesAndCornersOnVertices() {
+        final SplittableRandom rnd = new SplittableRandom(2);
+        //Döndürme özel durumları ve köşelerin tam sayı koordinatlarda kaldığı açılar
+        final double[] angles = { 0.0, -0.0, 90.0, -90.0, 180.0, -180.0, 270.0, 45.0, 1e-300 };
+        final double[] heights = { 300.0, 384.0, 400.5 };
+        for (final double angle : angles)
+            for (final double height : heights) {
+                //Kuşun dönüştürülmüş köşeleri
+                final AffineTransform at = new AffineTransform();
+                at.translate(LEFT, HEIGHT - height);
+                at.rotate(-angle / 180.0 * Math.PI, BIRD_WIDTH / 2, BIRD_HEIGHT / 2);
+                at.translate(0, 52);
+                final double[] points = new double[2 * Game.XS.length];
+                for (int i = 0; i < Game.XS.length; ++i) {
+                    points[2 * i] = (float) Game.XS[i];
+                    points[2 * i + 1] = (float) Game.YS[i];
+                }
+                at.transform(points, 0, points, 0, Game.XS.length);
+
+                for (int i = 0; i < Game.XS.length; ++i) {
+                    final double x = (float) points[2 * i];
+                    final double y = (float) points[2 * i + 1];
+                    for (final double dx : new double[] { 0.0, Math.ulp(x), -Math.ulp(x), 0.5, -0.5 })
+                        for (final double dy : new double[] { 0.0, Math.ulp(y), -Math.ulp(y), 0.5, -0.5 }) {
+                            //Sol ya da sağ kenar köşede, üst boru alt kenarı ya da alt boru üst kenarı köşede
+                            final double[] positions = { x + dx, x + dx - TUBE_WIDTH,
+                                    rnd.nextDouble(LEFT - 150.0, LEFT + 150.0) };
+                            final double[] tubeHeights = { HEIGHT - (y + dy),
+                                    HEIGHT - TUBE_APERTURE - (y + dy) };
+                            for (final double position : positions)
+                                for (final double tubeHeight : tubeHeights) {
+                                    tubes(position, tubeHeight);
+                                    assertSame(angle, height);
+                                }
+                        }
+                }
+            }
+    }
+
+    @Test
+    public void noTubes() {
+        tubes();
+        assertSame(0.0, HEIGHT / 2.0);
+        assertSame(30.0, -100.0);
+    }
+}
@@ -0,0 +1,248 @@
+package flappybirdai;
+
+import static flappybirdai.Pool.INPUTS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.Test;
+
+/*
+Generation bounds and early removal of birds. A tick budget ends the generation
+at that tick, a time budget truncates it without counting towards staleness, the
+stall cull is off by default and removes only birds without a new fitness high,
+and the hopeless cull leaves every rank that survives Pool.cullSpecies exactly
+as in the generation played to the end.
+
+Jenerasyon sınırları ve kuşların erken çıkarılması. Adım sınırı jenerasyonu o
+adımda bitirir, süre sınırı jenerasyonu yıpranmaya saymadan keser, takılma
+elemesi varsayılan olarak kapalıdır ve sadece rekor kıramayan kuşları çıkarır,
+umutsuz kuş elemesi de Pool.cullSpecies'ten sonra kalan bütün sıraları sonuna
+kadar oynanan jenerasyondakiyle aynı bırakır.
+*/
+public class GameTest {
+
+    private static final int OUTPUT = INPUTS;
+    private static final int BIAS = INPUTS - 1;
+
+    //Ağırlıkları verilen girdilerden çıkışa bağlantılar: { girdi, ağırlık, ... }
+    private static Genome genome(final Pool pool, final double... links) {
+        final Genome genome = new Genome(pool);
+        genome.maxNeuron = INPUTS;
+        for (int l = 0; l < links.length; l += 2) {
+            final Synapse gene = new Synapse();
+            gene.input = (int) links[l];
+            gene.output = OUTPUT;
+            gene.weight = links[l + 1];
+            gene.innovation = l / 2 + 1;
+            genome.addGene(gene);
+        }
+        return genome;
+    }
+
+    //Her adım zıplar, tavanda kalır ve uygunluğu adım başına 0.5 azalır
+    private static Genome flapper(final Pool pool) {
+        return genome(pool, BIAS, 2.0);
+    }
+
+    //Hiç zıplamaz ve yere düşer
+    private static Genome faller(final Pool pool) {
+        return genome(pool, new double[0]);
+    }
+
+    //Yüksekliği eşiğin altına inince zıplar, ilk borular gelene kadar havada kalır
+    private static Genome hoverer(final Pool pool, final double bias) {
+        return genome(pool, 0, -4.0, BIAS, bias);
+    }
+
+    private static Pool pool(final Config config) {
+        final Pool pool = new Pool(config, new Streams(1));
+        pool.innovation = 2;
+        return pool;
+    }
+
+    private static Species species(final Pool pool, final Genome... genomes) {
+        final Species species = new Species(pool);
+        for (final Genome genome : genomes)
+            species.genomes.add(genome);
+        pool.species.add(species);
+        return species;
+    }
+
+    //Jenerasyon bitene kadar oynar ve son adımı döndürür
+    private static int play(final Game game) {
+        game.initializeGame();
+        while (true) {
+            game.eval();
+            game.update();
+            if (game.learn())
+                return game.ticks;
+        }
+    }
+
+    @Test
+    public void tickBudgetEndsTheGeneration() {
+        //Varsayılan olarak da hiçbir jenerasyon sonsuza kadar sürmez
+        assertEquals(10000, new Config().generationTicks);
+
+        final Config config = new Config();
+        config.generationTicks = 40;
+        final Pool pool = pool(config);
+        final Species species = species(pool, hoverer(pool, 2.5), faller(pool),
+                hoverer(pool, 2.0));
+        species.topFitness = Double.NEGATIVE_INFINITY;
+        final Game game = new Game(pool);
+
+        assertEquals(40, play(game));
+        assertEquals(2, game.alive());
+        assertTrue(game.dead[1]);
+        for (final int i : new int[] { 0, 2 })
+            assertEquals(40 - 1.5 * game.flaps[i], game.genomes[i].fitness, 0.0);
+    }
+
+    @Test
+    public void stallCullIsOptIn() {
+        assertEquals(0, new Config().timeout);
+
+        for (final int timeout : new int[] { 0, 5 }) {
+            final Config config = new Config();
+            config.generationTicks = 30;
+            config.timeout = timeout;
+            final Pool pool = pool(config);
+            final Species species = species(pool, flapper(pool), hoverer(pool, 2.0));
+            species.topFitness = Double.NEGATIVE_INFINITY;
+            final Game game = new Game(pool);
+            game.initializeGame();
+            for (int tick = 1; tick <= 30; ++tick) {
+                game.eval();
+                game.update();
+                game.learn();
+                //Zıplayan kuşun en yüksek uygunluğu ilk adımdadır, 5 adım sonra takılmış sayılır; süzülen kuş en geç iki adımda bir rekor kırar
+                assertEquals("tick " + tick, timeout > 0 && tick >= 6, game.dead[0]);
+                assertFalse(game.dead[1]);
+            }
+            assertEquals(timeout > 0 ? 6 - 1.5 * 6 : 30 - 1.5 * 30,
+                    game.genomes[0].fitness, 0.0);
+        }
+    }
+
+    //Aynı genomlardan oluşan iki türlü bir havuz; 'cull' değilse umutsuz kuş elemesi kapalıdır
+    private static Pool varied(final boolean cull, final List<Genome> created) {
+        final Config config = new Config();
+        config.generationTicks = 70;
+        final Pool pool = pool(config);
+        final SplittableRandom rnd = new SplittableRandom(3);
+        for (int s = 0; s < 2; ++s) {
+            final Species species = species(pool);
+            for (int b = 0; b < 13; ++b) {
+                final Genome genome;
+                if (b % 6 == 0)
+                    genome = flapper(pool);
+                else if (b % 6 == 1)
+                    genome = faller(pool);
+                else
+                    genome = genome(pool, 0, rnd.nextDouble(-6.0, -1.0), BIAS,
+                            rnd.nextDouble(0.5, 4.0));
+                species.genomes.add(genome);
+                created.add(genome);
+            }
+            //Adım sınırına yakın bir rekor: eski kural, yani sadece topFitness karşılaştırması, hayatta kalanları değiştirirdi
+            species.topFitness = cull ? 60.0 : Double.NEGATIVE_INFINITY;
+        }
+        return pool;
+    }
+
+    @Test
+    public void hopelessCullChangesNoSurvivingRank() {
+        final List<Genome> full = new ArrayList<Genome>();
+        final List<Genome> culled = new ArrayList<Genome>();
+        final Pool fullPool = varied(false, full);
+        final Pool culledPool = varied(true, culled);
+        final Game fullGame = new Game(fullPool);
+        final Game culledGame = new Game(culledPool);
+        assertEquals(70, play(fullGame));
+        assertEquals(70, play(culledGame));
+
+        //Eleme gerçekten bazı kuşları erken çıkarmıştır
+        int removed = 0;
+        for (int i = 0; i < full.size(); ++i)
+            if (culled.get(i).fitness != full.get(i).fitness)
+                ++removed;
+        assertTrue(removed > 0);
+
+        fullPool.cullSpecies(false);
+        culledPool.cullSpecies(false);
+        fullPool.rankGlobally();
+        culledPool.rankGlobally();
+        for (int s = 0; s < 2; ++s) {
+            final List<Genome> a = fullPool.species.get(s).genomes;
+            final List<Genome> b = culledPool.species.get(s).genomes;
+            assertEquals(a.size(), b.size());
+            for (int g = 0; g < a.size(); ++g) {
+                assertEquals(full.indexOf(a.get(g)), culled.indexOf(b.get(g)));
+                assertEquals(a.get(g).fitness, b.get(g).fitness, 0.0);
+                assertEquals(a.get(g).globalRank, b.get(g).globalRank);
+            }
+        }
+    }
+
+    @Test
+    public void episodesStopAtTheBudgetWithoutHopelessCull() {
+        final Config config = new Config();
+        config.generationTicks = 40;
+        final Pool pool = pool(config);
+        final Species species = species(pool, flapper(pool), hoverer(pool, 2.5),
+                hoverer(pool, 3.0));
+        species.topFitness = 1e9;
+        final Game game = new Game(pool, new SplittableRandom(1));
+
+        assertEquals(40, play(game));
+        assertEquals(3, game.alive());
+        //Bağımsız parkurlar genomlara yazmaz
+        assertEquals(0.0, game.genomes[0].fitness, 0.0);
+        assertEquals(40 - 1.5 * 40, game.fitness[0], 0.0);
+    }
+
+    //Tek adımlık bir jenerasyon oynar; 'slow' ise süre sınırı ilk adımda dolar
+    private static Species oneTick(final Pool pool, final boolean slow)
+            throws InterruptedException {
+        final Species species = species(pool, hoverer(pool, 2.5), hoverer(pool, 2.0),
+                hoverer(pool, 3.0));
+        species.topFitness = 1e9;
+        final Game game = new Game(pool);
+        game.initializeGame();
+        game.eval();
+        game.update();
+        if (slow)
+            Thread.sleep(5);
+        assertTrue(game.learn());
+        assertEquals(1, game.ticks);
+        assertEquals(3, game.alive());
+        return species;
+    }
+
+    @Test
+    public void truncatedGenerationDoesNotCountTowardsStaleness()
+            throws InterruptedException {
+        final Config config = new Config();
+        config.generationMillis = 1;
+        final Pool pool = pool(config);
+        final Species species = oneTick(pool, true);
+        assertTrue(pool.truncated);
+        pool.newGeneration();
+        assertEquals(0, species.staleness);
+        assertFalse(pool.truncated);
+
+        //Adım sınırıyla biten jenerasyon yıpranmaya sayılır
+        final Config ticks = new Config();
+        ticks.generationTicks = 1;
+        final Pool other = pool(ticks);
+        final Species stale = oneTick(other, false);
+        assertFalse(other.truncated);
+        other.newGeneration();
+        assertEquals(1, stale.staleness);
+    }
+}
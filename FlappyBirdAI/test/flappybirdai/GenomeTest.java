@@ -0,0 +1,156 @@
+package flappybirdai;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+import org.junit.Test;
+
+/*
+The linear merges over innovation-sorted genes (disjoint, weights, crossover)
+against the original nested-loop versions, on random related genomes of 10, 100
+and 1000 genes. Results and random draws must match exactly.
+
+İnnovation sırasındaki genler üzerindeki doğrusal birleştirmeler (disjoint,
+weights, crossover), 10, 100 ve 1000 genli rastgele akraba genomlarda özgün iç
+içe döngülü sürümlerle karşılaştırılır. Sonuçlar ve rastgele çekilişler aynı
+olmalıdır.
+*/
+public class GenomeTest {
+
+    private static final int[] SIZES = { 10, 100, 1000 };
+
+    private final Pool pool = new Pool(new Config(), new Streams(1));
+
+    //Rastgele ağırlıklı bir gen
+    private static Synapse gene(final int innovation, final SplittableRandom rnd) {
+        final Synapse gene = new Synapse();
+        gene.innovation = innovation;
+        gene.input = rnd.nextInt(20);
+        gene.output = 4 + rnd.nextInt(20);
+        gene.weight = rnd.nextDouble(-2.0, 2.0);
+        gene.enabled = rnd.nextInt(4) != 0;
+        return gene;
+    }
+
+    //Ortak bir innovation aralığından rastgele seçilmiş 'size' genli bir genom; genler addGene ile karışık sırada eklenir
+    private Genome genome(final int size, final SplittableRandom rnd) {
+        final List<Integer> innovations = new ArrayList<Integer>();
+        for (int i = 0; i < size * 2; ++i)
+            innovations.add(i + 1);
+        for (int i = innovations.size() - 1; i > 0; --i)
+            Collections.swap(innovations, i, rnd.nextInt(i + 1));
+
+        final Genome genome = new Genome(pool);
+        for (int i = 0; i < size; ++i)
+            genome.addGene(gene(innovations.get(i), rnd));
+        genome.fitness = rnd.nextInt(100);
+        return genome;
+    }
+
+    //Özgün disjoint(): her gen için diğer genomun bütün genleri taranır
+    private static double referenceDisjoint(final Genome a, final Genome b) {
+        double disjointGenes = 0.0;
+        search: for (final Synapse gene : a.genes) {
+            for (final Synapse otherGene : b.genes)
+                if (gene.innovation == otherGene.innovation)
+                    continue search;
+            ++disjointGenes;
+        }
+        return disjointGenes / Math.max(a.genes.size(), b.genes.size());
+    }
+
+    //Özgün weights()
+    private static double referenceWeights(final Genome a, final Genome b) {
+        double sum = 0.0;
+        double coincident = 0.0;
+        search: for (final Synapse gene : a.genes)
+            for (final Synapse otherGene : b.genes)
+                if (gene.innovation == otherGene.innovation) {
+                    sum += Math.abs(gene.weight - otherGene.weight);
+                    ++coincident;
+                    continue search;
+                }
+        return sum / coincident;
+    }
+
+    //Özgün crossover() gen seçimi; g1 daha yüksek uygunluklu genomdur
+    private static List<Synapse> referenceCrossover(final Genome g1, final Genome g2,
+            final RandomGenerator rnd) {
+        final List<Synapse> child = new ArrayList<Synapse>();
+        outerloop: for (final Synapse gene1 : g1.genes) {
+            for (final Synapse gene2 : g2.genes)
+                if (gene1.innovation == gene2.innovation)
+                    if (rnd.nextBoolean() && gene2.enabled) {
+                        child.add(gene2.clone());
+                        continue outerloop;
+                    } else
+                        break;
+            child.add(gene1.clone());
+        }
+        return child;
+    }
+
+    private static void assertSameGenes(final List<Synapse> expected, final List<Synapse> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); ++i) {
+            final Synapse e = expected.get(i);
+            final Synapse a = actual.get(i);
+            assertEquals(e.innovation, a.innovation);
+            assertEquals(e.input, a.input);
+            assertEquals(e.output, a.output);
+            assertEquals(e.weight, a.weight, 0.0);
+            assertEquals(e.enabled, a.enabled);
+        }
+    }
+
+    @Test
+    public void addGeneKeepsInnovationOrder() {
+        final SplittableRandom rnd = new SplittableRandom(3);
+        for (final int size : SIZES) {
+            final Genome genome = genome(size, rnd);
+            for (int i = 1; i < genome.genes.size(); ++i)
+                assertTrue(genome.genes.get(i - 1).innovation < genome.genes.get(i).innovation);
+        }
+    }
+
+    @Test
+    public void distanceMatchesNestedLoops() {
+        final SplittableRandom rnd = new SplittableRandom(4);
+        for (final int size : SIZES)
+            for (int round = 0; round < 50; ++round) {
+                final Genome a = genome(size, rnd);
+                final Genome b = genome(size / 2 + rnd.nextInt(size), rnd);
+                assertEquals(referenceDisjoint(a, b), a.disjoint(b), 0.0);
+                assertEquals(referenceDisjoint(b, a), b.disjoint(a), 0.0);
+                assertEquals(referenceWeights(a, b), a.weights(b), 0.0);
+                assertEquals(referenceWeights(b, a), b.weights(a), 0.0);
+            }
+    }
+
+    @Test
+    public void crossoverMatchesNestedLoops() {
+        final SplittableRandom rnd = new SplittableRandom(5);
+        final Species species = new Species(pool);
+        for (final int size : SIZES)
+            for (int round = 0; round < 50; ++round) {
+                final Genome a = genome(size, rnd);
+                final Genome b = genome(size / 2 + rnd.nextInt(size), rnd);
+                final long seed = rnd.nextLong();
+
+                final Genome g1 = b.fitness > a.fitness ? b : a;
+                final Genome g2 = g1 == a ? b : a;
+                final SplittableRandom expected = new SplittableRandom(seed);
+                final SplittableRandom actual = new SplittableRandom(seed);
+                final List<Synapse> reference = referenceCrossover(g1, g2, expected);
+                final Genome child = species.crossover(a, b, actual);
+                assertSameGenes(reference, child.genes);
+                //İki sürüm aynı sayıda çekiliş yapmıştır
+                assertEquals(expected.nextLong(), actual.nextLong());
+            }
+    }
+}
@@ -0,0 +1,92 @@
+package flappybirdai;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.Test;
+
+/*
+Migration between islands that number their innovations independently. After a
+migration every pool must still map each innovation number to one link and keep
+every genome's genes sorted by unique innovation numbers.
+
+Innovation numaralarını bağımsız veren adalar arasında göç. Göçten sonra her
+havuzda bir innovation numarası tek bir bağlantıya karşılık gelmeli ve her
+genomun genleri tekil numaralarla sıralı kalmalıdır.
+*/
+public class IslandModelTest {
+
+    //Rastgele uygunluklarla birkaç jenerasyon evrilmiş bir havuz
+    private static Pool evolved(final long seed, final int generations) {
+        final Config config = new Config();
+        config.population = 30;
+        final Pool pool = new Pool(config, new Streams(seed));
+        pool.initializePool();
+        final SplittableRandom rnd = new SplittableRandom(seed);
+        for (int g = 0; g < generations; ++g) {
+            score(pool, rnd);
+            pool.newGeneration();
+        }
+        score(pool, rnd);
+        return pool;
+    }
+
+    private static void score(final Pool pool, final SplittableRandom rnd) {
+        for (final Species species : pool.species)
+            for (final Genome genome : species.genomes)
+                genome.fitness = rnd.nextInt(1000);
+    }
+
+    private static void assertConsistent(final Pool pool) {
+        final Map<Integer, Long> links = new HashMap<Integer, Long>();
+        for (final Species species : pool.species)
+            for (final Genome genome : species.genomes) {
+                int previous = Integer.MIN_VALUE;
+                for (final Synapse gene : genome.genes) {
+                    assertTrue("genes not sorted by unique innovation",
+                            gene.innovation > previous);
+                    previous = gene.innovation;
+                    assertTrue(gene.innovation <= pool.innovation);
+
+                    final long link = (long) gene.input << 32 | gene.output;
+                    final Long known = links.put(gene.innovation, link);
+                    if (known != null)
+                        assertEquals("innovation " + gene.innovation
+                                + " names two different links", (long) known, link);
+                }
+            }
+    }
+
+    @Test
+    public void migrantsAreRenumberedIntoTheTargetPool() {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final List<HeadlessTrainer> islands = new ArrayList<HeadlessTrainer>();
+            final ParallelEvaluator evaluator = new ParallelEvaluator();
+            islands.add(new HeadlessTrainer(evolved(1, 8), evaluator, null));
+            islands.add(new HeadlessTrainer(evolved(2, 8), evaluator, null));
+            for (final HeadlessTrainer island : islands)
+                assertConsistent(island.getPool());
+
+            final IslandModel model = new IslandModel(islands, 1, 5, executor);
+            model.migrate();
+            for (final HeadlessTrainer island : islands)
+                assertConsistent(island.getPool());
+
+            //Göçten sonra jenerasyon üretilebilir ve tutarlılık korunur
+            for (final HeadlessTrainer island : islands) {
+                island.getPool().newGeneration();
+                assertConsistent(island.getPool());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package flappybirdai;
+
+import static flappybirdai.Pool.INPUTS;
+import static flappybirdai.Pool.OUTPUTS;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.Test;
+
+/*
+Evaluation order of compiled networks. A neuron may only be evaluated before
+one of its sources when both are on the same cycle; the output of a recurrent
+genome must see this tick's values of everything outside its cycle. Only
+genomes that have survived NetworkCompiler.MIN_AGE generations are compiled.
+
+Derlenmiş ağların hesaplama sırası. Bir nöron, kaynaklarından birinden önce
+ancak ikisi aynı döngüdeyse hesaplanabilir; döngüsel bir genomun çıkışı, döngü
+dışındaki her şeyin bu adımdaki değerini görmelidir. Sadece
+NetworkCompiler.MIN_AGE jenerasyon hayatta kalan genomlar bayt koduna derlenir.
+*/
+public class NetworkTest {
+
+    private static final int OUTPUT = INPUTS;
+
+    private static Synapse gene(final int input, final int output, final double weight) {
+        final Synapse gene = new Synapse();
+        gene.input = input;
+        gene.output = output;
+        gene.weight = weight;
+        return gene;
+    }
+
+    //5→4, 6→5, 0→6, 7→6, 6→7: 6 ve 7 bir döngüdür, çıkış döngüde değildir
+    private static List<Synapse> recurrent() {
+        final List<Synapse> genes = new ArrayList<Synapse>();
+        genes.add(gene(5, OUTPUT, 1.0));
+        genes.add(gene(6, 5, 1.0));
+        genes.add(gene(0, 6, 1.0));
+        genes.add(gene(7, 6, 1.0));
+        genes.add(gene(6, 7, 1.0));
+        return genes;
+    }
+
+    @Test
+    public void outputFollowsTheCycleThatFeedsIt() {
+        final Network network = new Network(recurrent());
+        assertArrayEquals(new int[] { 6, 7, 5, OUTPUT }, network.order);
+
+        //Girdi ilk adımda döngüden geçerek çıkışa ulaşır
+        final double[] state = network.newState();
+        final double[] output = new double[OUTPUTS];
+        final double[] input = new double[] { 1.0, 0.0, 0.0, 0.0 };
+        network.evaluate(state, input, output);
+        final double s6 = Neuron.sigmoid(1.0);
+        final double expected = Neuron.sigmoid(Neuron.sigmoid(s6));
+        assertEquals(expected, output[0], 0.0);
+        assertNotEquals(0.0, output[0], 0.0);
+
+        //İkinci adımda 6, 7'nin önceki değerini okur
+        network.evaluate(state, input, output);
+        final double s6b = Neuron.sigmoid(1.0 + Neuron.sigmoid(s6));
+        assertEquals(Neuron.sigmoid(Neuron.sigmoid(s6b)), output[0], 0.0);
+    }
+
+    @Test
+    public void compiledRecurrentNetworkMatchesInterpreter() {
+        final Network interpreted = new Network(recurrent());
+        final Network compiled = new Network(recurrent());
+        assertTrue(compiled.compile());
+
+        final double[] a = interpreted.newState();
+        final double[] b = compiled.newState();
+        final double[] outA = new double[OUTPUTS];
+        final double[] outB = new double[OUTPUTS];
+        final double[] input = new double[] { 0.3, -0.2, 0.7, 1.0 };
+        for (int tick = 0; tick < 5; ++tick) {
+            interpreted.evaluate(a, input, outA);
+            compiled.evaluate(b, input, outB);
+            assertEquals(outA[0], outB[0], 0.0);
+        }
+    }
+
+    @Test
+    public void onlyGenomesThatSurviveGenerationsAreCompiled() {
+        final Config config = new Config();
+        config.population = 50;
+        config.compile = true;
+        final Pool pool = new Pool(config, new Streams(3));
+        pool.initializePool();
+        final SplittableRandom rnd = new SplittableRandom(3);
+        int oldest = 0;
+        for (int g = 0; g < NetworkCompiler.MIN_AGE + 2; ++g) {
+            for (final Species species : pool.species)
+                for (final Genome genome : species.genomes) {
+                    genome.generateNetwork();
+                    assertEquals(genome.age >= NetworkCompiler.MIN_AGE,
+                            genome.network.compiled());
+                    oldest = Math.max(oldest, genome.age);
+                    //Yaşlı genomlar türünün en iyisi kalır
+                    genome.fitness = 1000 * genome.age + rnd.nextInt(1000);
+                }
+            pool.newGeneration();
+        }
+        assertTrue(oldest > NetworkCompiler.MIN_AGE);
+    }
+
+    //Rastgele döngüsel ağlarda geriye bakan her bağlantı bir döngünün içindedir
+    @Test
+    public void backwardLinksOnlyInsideCycles() {
+        final SplittableRandom rnd = new SplittableRandom(2);
+        for (int round = 0; round < 500; ++round) {
+            final int hidden = 1 + rnd.nextInt(12);
+            final int total = INPUTS + OUTPUTS + hidden;
+            final List<Synapse> genes = new ArrayList<Synapse>();
+            final int links = 1 + rnd.nextInt(3 * total);
+            for (int i = 0; i < links; ++i)
+                genes.add(gene(rnd.nextInt(total), INPUTS + rnd.nextInt(total - INPUTS),
+                        rnd.nextDouble(-2.0, 2.0)));
+            final Network network = new Network(genes);
+
+            //Derlenmiş nöronlar arasındaki bağlantılar, derlenmiş numaralarla
+            final int n = network.neurons;
+            final boolean[][] link = new boolean[n][n];
+            final int[] position = new int[n];
+            Arrays.fill(position, -1);
+            for (int i = 0; i < network.order.length; ++i) {
+                position[network.order[i]] = i;
+                for (int l = network.start[i]; l < network.start[i + 1]; ++l)
+                    link[network.sources[l]][network.order[i]] = true;
+            }
+            final boolean[][] reach = closure(link);
+
+            for (int i = 0; i < network.order.length; ++i) {
+                final int target = network.order[i];
+                for (int l = network.start[i]; l < network.start[i + 1]; ++l) {
+                    final int source = network.sources[l];
+                    if (position[source] >= i)
+                        assertTrue("round " + round + ": " + source + "→" + target
+                                + " is read before it is computed outside a cycle",
+                                reach[target][source]);
+                }
+            }
+        }
+    }
+
+    //Geçişli kapanış (Floyd-Warshall)
+    private static boolean[][] closure(final boolean[][] link) {
+        final int n = link.length;
+        final boolean[][] reach = new boolean[n][];
+        for (int i = 0; i < n; ++i)
+            reach[i] = link[i].clone();
+        for (int k = 0; k < n; ++k)
+            for (int i = 0; i < n; ++i)
+                if (reach[i][k])
+                    for (int j = 0; j < n; ++j)
+                        reach[i][j] |= reach[k][j];
+        return reach;
+    }
+}